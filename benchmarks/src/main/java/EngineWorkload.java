@@ -0,0 +1,94 @@
+import benchmarks.Workload;
+
+/**
+ * Solves or counts the problem with one of the engines.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class EngineWorkload implements Workload
+{
+	private SolverEngine engine;		//Save the engine measured.
+	private int n;						//Save the size of the board.
+	private boolean isCount;			//Save whether the solutions are only counted.
+	private int[] s;					//Save the solution being built.
+	private Counter counter;			//Save the receiver of the solutions.
+	
+	/**
+	 * Constructor for EngineWorkload in which the name of the engine, the size of the board and whether 
+	 * the solutions are only counted are passed as parameters.
+	 * 
+	 * @param engineName	"recursive", "bitmask" or "iterative".
+	 * @param n				The size of the board.
+	 * @param isCount		True if the solutions are only counted, false if they are built.
+	 */
+	public EngineWorkload(String engineName, int n, boolean isCount)
+	{
+		if(engineName.equals("recursive")){
+			engine = new RecursiveEngine();
+		}
+		else if(engineName.equals("bitmask")){
+			engine = new BitmaskEngine();
+		}
+		else if(engineName.equals("iterative")){
+			engine = new IterativeEngine();
+		}
+		else{
+			throw new IllegalArgumentException("Unknown engine: " + engineName);
+		}
+		this.n = n;
+		this.isCount = isCount;
+		s = new int[n];
+		counter = new Counter();
+	}
+	
+	/**
+	 * Solve or count the problem.
+	 * 
+	 * @return	The number of solutions.
+	 */
+	public long run()
+	{
+		if(isCount){
+			return engine.count(n);
+		}
+		counter.total = 0;
+		engine.queens(s, n, false, counter);
+		
+		return counter.total;
+	}
+	
+	/**
+	 * The engine does not use any resource.
+	 */
+	public void close()
+	{
+	}
+	
+	/**
+	 * Counts the solutions received.
+	 */
+	private static class Counter implements SolutionListener
+	{
+		private long total;		//Save the number of solutions received.
+		
+		/**
+		 * Count a solution.
+		 * 
+		 * @param s		A solution to the problem.
+		 */
+		public void accept(int[] s)
+		{
+			total++;
+		}
+		
+		/**
+		 * The positions rejected are not used.
+		 * 
+		 * @param s		A position of the last column.
+		 */
+		public void reject(int[] s)
+		{
+		}
+	}
+}
@@ -0,0 +1,48 @@
+import benchmarks.Workload;
+
+/**
+ * Builds the text of a solution, as ProblemManager does for the graphic output and the trace.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class FormatterWorkload implements Workload
+{
+	private static final char[] SOLUTION = "Solution: ".toCharArray();
+	
+	private int[] s;						//Save the solution formatted.
+	private SolutionFormatter formatter;	//Save the formatter measured.
+	
+	/**
+	 * Constructor for FormatterWorkload in which the size of the board is passed as a parameter. The 
+	 * first solution of the board is the one formatted.
+	 * 
+	 * @param n		The size of the board.
+	 */
+	public FormatterWorkload(int n)
+	{
+		s = Solutions.first(n);
+		formatter = new SolutionFormatter(n);
+	}
+	
+	/**
+	 * Build the text of the solution.
+	 * 
+	 * @return	The length of the text.
+	 */
+	public long run()
+	{
+		formatter.clear();
+		formatter.append(SOLUTION);
+		formatter.appendSolution(s);
+		
+		return formatter.toString().length();
+	}
+	
+	/**
+	 * The formatter does not use any resource.
+	 */
+	public void close()
+	{
+	}
+}
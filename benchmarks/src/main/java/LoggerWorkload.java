@@ -0,0 +1,46 @@
+import benchmarks.Workload;
+import java.io.File;
+
+/**
+ * Writes an event in a log.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class LoggerWorkload implements Workload
+{
+	private Logger logger;		//Save the logger measured.
+	private File file;			//Save the file of the log.
+	
+	/**
+	 * Constructor for LoggerWorkload in which the file of the log is passed as a parameter.
+	 * 
+	 * @param file		The name of the file of the log.
+	 */
+	public LoggerWorkload(String file)
+	{
+		this.file = new File(file);
+		logger = new Logger(this.file);
+	}
+	
+	/**
+	 * Write an event in the log.
+	 * 
+	 * @return	The length of the event.
+	 */
+	public long run()
+	{
+		String text = "The solution is displayed via standard output.";
+		logger.writeInLog(text);
+		
+		return text.length();
+	}
+	
+	/**
+	 * The log is written until the application ends, so it is only deleted then.
+	 */
+	public void close()
+	{
+		file.deleteOnExit();
+	}
+}
@@ -0,0 +1,82 @@
+import benchmarks.Workload;
+
+/**
+ * Solves the problem from end to end through ProblemManager, formatting every solution as the list 
+ * of solutions does, and passes the lines to a destination that discards them.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class ManagerWorkload implements Workload
+{
+	private ProblemManager manager;		//Save the manager measured.
+	private DiscardSink sink;			//Save the destination of the solutions.
+	
+	/**
+	 * Constructor for ManagerWorkload in which the size of the board is passed as a parameter.
+	 * 
+	 * @param n		The size of the board.
+	 */
+	public ManagerWorkload(int n)
+	{
+		manager = new ProblemManager(n, null, false, false, new BitmaskEngine());
+		sink = new DiscardSink();
+		manager.setSink(sink);
+	}
+	
+	/**
+	 * Solve the problem and write its solutions.
+	 * 
+	 * @return	The number of characters written.
+	 */
+	public long run()
+	{
+		sink.length = 0;
+		manager.showOutput();
+		
+		return sink.length;
+	}
+	
+	/**
+	 * The manager does not keep any resource open.
+	 */
+	public void close()
+	{
+	}
+	
+	/**
+	 * A destination that only counts the characters written.
+	 */
+	private static class DiscardSink implements SolutionSink
+	{
+		private long length;		//Save the number of characters written.
+		
+		/**
+		 * Count the characters of a line.
+		 * 
+		 * @param line	The line to write.
+		 */
+		public void write(String line)
+		{
+			length += line.length();
+		}
+		
+		/**
+		 * Count the characters of a line.
+		 * 
+		 * @param line		An array with the line to write.
+		 * @param length	The number of characters of the line.
+		 */
+		public void write(char[] line, int length)
+		{
+			this.length += length;
+		}
+		
+		/**
+		 * There is nothing to close.
+		 */
+		public void close()
+		{
+		}
+	}
+}
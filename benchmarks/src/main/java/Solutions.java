@@ -0,0 +1,56 @@
+/**
+ * Finds the solutions used as the input of the workloads.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public final class Solutions
+{
+	/**
+	 * Private constructor, the class only has static methods.
+	 */
+	private Solutions()
+	{
+	}
+	
+	/**
+	 * Returns all the solutions of a board, in order.
+	 * 
+	 * @param n		The size of the board.
+	 * @return		The solutions of the board.
+	 */
+	public static SolutionBuffer all(int n)
+	{
+		SolutionBuffer buffer = new SolutionBuffer(n);
+		new BitmaskEngine().queens(new int[n], n, false, buffer);
+		
+		return buffer;
+	}
+	
+	/**
+	 * Returns the first solution of a board.
+	 * 
+	 * @param n		The size of the board, greater than 3.
+	 * @return		The first solution of the board.
+	 */
+	public static int[] first(int n)
+	{
+		final int[] first = new int[n];
+		final boolean[] isFound = new boolean[1];
+		new BitmaskEngine().queens(new int[n], n, false, new SolutionListener(){
+			public void accept(int[] s)
+			{
+				if(!isFound[0]){
+					System.arraycopy(s, 0, first, 0, s.length);
+					isFound[0] = true;
+				}
+			}
+			
+			public void reject(int[] s)
+			{
+			}
+		});
+		
+		return first;
+	}
+}
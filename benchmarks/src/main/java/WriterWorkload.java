@@ -0,0 +1,129 @@
+import benchmarks.Workload;
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+/**
+ * Writes the output file with all the solutions of a board, in text or graphical format, with 
+ * OutputManager.writeFile or with the writers that keep the file open.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class WriterWorkload implements Workload
+{
+	private static final char[] NUMBER_SEPARATOR = ": ".toCharArray();
+	private static final char[] SOLUTION = "Solution: ".toCharArray();
+	
+	private String writer;					//Save the writer measured.
+	private String file;					//Save the name of the output file.
+	private SolutionBuffer solutions;		//Save the solutions written.
+	private ArrayList<String> lines;		//Save the list of solutions for OutputManager.writeFile.
+	private SolutionFormatter formatter;	//Save the formatter of the solutions.
+	private OutputManager outputManager;	//Save the output manager.
+	private int[] s;						//Save the solution being written.
+	
+	/**
+	 * Constructor for WriterWorkload in which the writer, the size of the board and the output file are 
+	 * passed as parameters. The messages of the writers are not shown on the console.
+	 * 
+	 * @param writer	"text-writeFile", "text-FileSink", "graphic-writeFile" or "graphic-GraphicWriter".
+	 * @param n			The size of the board.
+	 * @param file		The name of the output file, with the .txt extension.
+	 */
+	public WriterWorkload(String writer, int n, String file)
+	{
+		this.writer = writer;
+		this.file = file;
+		solutions = Solutions.all(n);
+		formatter = new SolutionFormatter(n);
+		outputManager = new OutputManager();
+		s = new int[n];
+		lines = new ArrayList<String>();
+		for(int i = 0; i < solutions.size(); i++){
+			solutions.get(i, s);
+			formatter.clear();
+			formatter.appendNumber(i + 1);
+			formatter.append(NUMBER_SEPARATOR);
+			formatter.appendSolution(s);
+			lines.add(formatter.toString());
+		}
+		System.setOut(new PrintStream(new OutputStream(){
+			public void write(int b)
+			{
+			}
+		}));
+	}
+	
+	/**
+	 * Write the output file, replacing the previous one.
+	 * 
+	 * @return	The size of the file.
+	 */
+	public long run()
+	{
+		new File(file).delete();
+		outputManager.setInformado(false);
+		if(writer.equals("text-writeFile")){
+			outputManager.writeFile(file, lines, false, null, null);
+		}
+		else if(writer.equals("text-FileSink")){
+			FileSink sink = new FileSink(file, outputManager);
+			for(int i = 0; i < solutions.size(); i++){
+				solutions.get(i, s);
+				formatter.clear();
+				formatter.appendNumber(i + 1);
+				formatter.append(NUMBER_SEPARATOR);
+				formatter.appendSolution(s);
+				sink.write(formatter.getBuffer(), formatter.length());
+			}
+			sink.close();
+		}
+		else if(writer.equals("graphic-writeFile")){
+			for(int i = 0; i < solutions.size(); i++){
+				solutions.get(i, s);
+				int[][] board = new int[s.length][s.length];
+				for(int j = 0; j < s.length; j++){
+					board[s[j] - 1][j] = 1;
+				}
+				outputManager.writeFile(file, null, false, solutionText(), board);
+			}
+		}
+		else if(writer.equals("graphic-GraphicWriter")){
+			GraphicWriter graphicWriter = new GraphicWriter(file, outputManager);
+			for(int i = 0; i < solutions.size(); i++){
+				solutions.get(i, s);
+				graphicWriter.write(solutionText(), s);
+			}
+			graphicWriter.close();
+		}
+		else{
+			throw new IllegalArgumentException("Unknown writer: " + writer);
+		}
+		
+		return new File(file).length();
+	}
+	
+	/**
+	 * Delete the output file.
+	 */
+	public void close()
+	{
+		new File(file).delete();
+	}
+	
+	/**
+	 * Returns the text of the solution being written, as ProblemManager builds it.
+	 * 
+	 * @return	The text of the solution.
+	 */
+	private String solutionText()
+	{
+		formatter.clear();
+		formatter.append(SOLUTION);
+		formatter.appendSolution(s);
+		
+		return formatter.toString();
+	}
+}
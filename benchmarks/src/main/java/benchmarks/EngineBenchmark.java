@@ -0,0 +1,81 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the engines that solve the problem, building the solutions and only counting them.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class EngineBenchmark
+{
+	@Param({"recursive", "bitmask", "iterative"})
+	public String engine;		//The engine measured.
+	
+	@Param({"8", "10", "12", "14", "16"})
+	public int n;				//The size of the board.
+	
+	private Workload solve;		//Save the search that builds the solutions.
+	private Workload count;		//Save the search that only counts them.
+	
+	/**
+	 * Create the searches.
+	 */
+	@Setup
+	public void setUp()
+	{
+		solve = Workloads.create("EngineWorkload", engine, n, false);
+		count = Workloads.create("EngineWorkload", engine, n, true);
+	}
+	
+	/**
+	 * Release the searches.
+	 */
+	@TearDown
+	public void tearDown()
+	{
+		solve.close();
+		count.close();
+	}
+	
+	/**
+	 * Find all the solutions.
+	 * 
+	 * @return	The number of solutions.
+	 */
+	@Benchmark
+	public long solve()
+	{
+		return solve.run();
+	}
+	
+	/**
+	 * Count the solutions.
+	 * 
+	 * @return	The number of solutions.
+	 */
+	@Benchmark
+	public long count()
+	{
+		return count.run();
+	}
+}
@@ -0,0 +1,64 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the text of a solution is built.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class FormatterBenchmark
+{
+	@Param({"8", "10", "12", "14"})
+	public int n;				//The size of the board.
+	
+	private Workload workload;		//Save the work measured.
+	
+	/**
+	 * Create the work measured.
+	 */
+	@Setup
+	public void setUp()
+	{
+		workload = Workloads.create("FormatterWorkload", n);
+	}
+	
+	/**
+	 * Release the work measured.
+	 */
+	@TearDown
+	public void tearDown()
+	{
+		workload.close();
+	}
+	
+	/**
+	 * Build the text of a solution.
+	 * 
+	 * @return	The length of the text.
+	 */
+	@Benchmark
+	public long buildSolution()
+	{
+		return workload.run();
+	}
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how an event is written in the log.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class LoggerBenchmark
+{
+	private Workload workload;		//Save the work measured.
+	
+	/**
+	 * Create the work measured.
+	 */
+	@Setup
+	public void setUp()
+	{
+		workload = Workloads.create("LoggerWorkload", Workloads.temporaryFile("queens_benchmark.log"));
+	}
+	
+	/**
+	 * Release the work measured.
+	 */
+	@TearDown
+	public void tearDown()
+	{
+		workload.close();
+	}
+	
+	/**
+	 * Write an event in the log.
+	 * 
+	 * @return	The length of the event.
+	 */
+	@Benchmark
+	public long writeInLog()
+	{
+		return workload.run();
+	}
+}
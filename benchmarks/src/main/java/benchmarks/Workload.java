@@ -0,0 +1,24 @@
+package benchmarks;
+
+/**
+ * A piece of work of the application measured by a benchmark. The classes of the application are in 
+ * the default package, which cannot be used from the benchmarks, so the implementations are in the 
+ * default package too and the benchmarks create them by name with Workloads.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public interface Workload
+{
+	/**
+	 * Do the work once.
+	 * 
+	 * @return	A value that depends on the work done, so that it is not removed by the compiler.
+	 */
+	long run();
+	
+	/**
+	 * Release the files and resources used by the work.
+	 */
+	void close();
+}
@@ -0,0 +1,55 @@
+package benchmarks;
+
+import java.io.File;
+import java.lang.reflect.Constructor;
+
+/**
+ * Creates the workloads of the benchmarks from the name of their class.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public final class Workloads
+{
+	/**
+	 * Private constructor, the class only has static methods.
+	 */
+	private Workloads()
+	{
+	}
+	
+	/**
+	 * Create a workload with the constructor of its class that takes the given number of arguments.
+	 * 
+	 * @param className		The name of the class of the workload, in the default package.
+	 * @param args			The arguments of the constructor.
+	 * @return				The workload.
+	 */
+	public static Workload create(String className, Object... args)
+	{
+		try{
+			Constructor<?>[] constructors = Class.forName(className).getConstructors();
+			for(int i = 0; i < constructors.length; i++){
+				if(constructors[i].getParameterCount() == args.length){
+					return (Workload) constructors[i].newInstance(args);
+				}
+			}
+		}
+		catch(ReflectiveOperationException e){
+			throw new IllegalStateException("The workload " + className + " cannot be created.", e);
+		}
+		throw new IllegalStateException("The workload " + className + " has no constructor with " + 
+				args.length + " arguments.");
+	}
+	
+	/**
+	 * Returns the path of a file in the temporary directory for the output of a benchmark.
+	 * 
+	 * @param name		The name of the file.
+	 * @return			The path of the file.
+	 */
+	public static String temporaryFile(String name)
+	{
+		return new File(System.getProperty("java.io.tmpdir"), name).getPath();
+	}
+}
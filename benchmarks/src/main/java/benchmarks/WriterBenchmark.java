@@ -0,0 +1,69 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the output file is written in text and graphical format, with OutputManager.writeFile 
+ * and with the writers that keep the file open.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class WriterBenchmark
+{
+	@Param({"text-writeFile", "text-FileSink", "graphic-writeFile", "graphic-GraphicWriter"})
+	public String writer;		//The writer measured.
+	
+	@Param({"8", "10", "12"})
+	public int n;				//The size of the board.
+	
+	private Workload workload;		//Save the work measured.
+	
+	/**
+	 * Create the work measured.
+	 */
+	@Setup
+	public void setUp()
+	{
+		workload = Workloads.create("WriterWorkload", writer, n, 
+				Workloads.temporaryFile("queens_benchmark_" + writer + ".txt"));
+	}
+	
+	/**
+	 * Release the work measured.
+	 */
+	@TearDown
+	public void tearDown()
+	{
+		workload.close();
+	}
+	
+	/**
+	 * Write the output file with all the solutions of the board.
+	 * 
+	 * @return	The size of the file.
+	 */
+	@Benchmark
+	public long writeFile()
+	{
+		return workload.run();
+	}
+}
@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * It represents a reader of the binary files of solutions written by BinarySolutionWriter. The file is 
+ * mapped into memory, so any solution can be read directly without reading the previous ones.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class BinarySolutionReader 
+{
+	private MappedByteBuffer map;		//Save the file mapped into memory.
+	private int n;						//Save the board size.
+	private int bits;					//Save the number of bits of every row.
+	private int recordSize;				//Save the number of bytes of every solution.
+	private int order;					//Save the order of the solutions.
+	private int symmetry;				//Save whether the file has all the solutions or the fundamental ones.
+	private long count;					//Save the number of solutions.
+	
+	/**
+	 * Constructor for BinarySolutionReader in which the name of the binary file is passed as a parameter.
+	 * 
+	 * @param file				The name of the binary file.
+	 * @throws IOException		If the file cannot be read or it is not a binary file of solutions.
+	 */
+	public BinarySolutionReader(String file) throws IOException
+	{
+		FileChannel channel = FileChannel.open(Paths.get(file), StandardOpenOption.READ);
+		try{
+			map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		finally{
+			channel.close();	//The mapping stays valid after closing the channel.
+		}
+		
+		if(map.capacity() < BinarySolutionWriter.HEADER_SIZE){
+			throw new IOException("The file is too short.");
+		}
+		for(int i = 0; i < BinarySolutionWriter.MAGIC.length; i++){
+			if(map.get(i) != BinarySolutionWriter.MAGIC[i]){
+				throw new IOException("The file is not a binary file of solutions.");
+			}
+		}
+		if(map.get(4) != BinarySolutionWriter.VERSION){
+			throw new IOException("The version of the file is not supported.");
+		}
+		n = map.get(5);
+		bits = map.get(6);
+		order = map.get(7);
+		symmetry = map.get(8);
+		count = map.getLong(BinarySolutionWriter.COUNT_POSITION);
+		recordSize = BinarySolutionWriter.recordSize(n);
+		if(bits != BinarySolutionWriter.bitsPerRow(n) || 
+				map.capacity() != BinarySolutionWriter.HEADER_SIZE + count * recordSize){
+			throw new IOException("The file is damaged.");
+		}
+	}
+	
+	/**
+	 * Returns the size of the board.
+	 * 
+	 * @return	The size of the board.
+	 */
+	public int getN()
+	{
+		return n;
+	}
+	
+	/**
+	 * Returns the number of solutions in the file.
+	 * 
+	 * @return	The number of solutions.
+	 */
+	public long size()
+	{
+		return count;
+	}
+	
+	/**
+	 * Returns the order of the solutions in the file.
+	 * 
+	 * @return	The order of the solutions, BinarySolutionWriter.ORDER_LISTED for the order of the text output.
+	 */
+	public int getOrder()
+	{
+		return order;
+	}
+	
+	/**
+	 * Returns whether the file has all the solutions or only the fundamental ones.
+	 * 
+	 * @return	BinarySolutionWriter.ALL_SOLUTIONS or BinarySolutionWriter.FUNDAMENTAL_SOLUTIONS.
+	 */
+	public int getSymmetry()
+	{
+		return symmetry;
+	}
+	
+	/**
+	 * Copy the solution i into an array passed as a parameter.
+	 * 
+	 * @param i		The position of the solution, starting at 0.
+	 * @param s		An array of length n where the solution is copied.
+	 */
+	public void get(long i, int[] s)
+	{
+		int position = (int) (BinarySolutionWriter.HEADER_SIZE + i * recordSize);
+		int mask = (1 << bits) - 1;
+		int acc = 0;		//Bits read and not used yet.
+		int accBits = 0;
+		
+		for(int j = 0; j < n; j++){
+			while(accBits < bits){
+				acc |= (map.get(position++) & 0xFF) << accBits;
+				accBits += 8;
+			}
+			s[j] = (acc & mask) + 1;
+			acc >>>= bits;
+			accBits -= bits;
+		}
+	}
+	
+	/**
+	 * Write all the solutions in the text format of the output files ("1: a2 b4 c1 d3 ").
+	 * 
+	 * @param sink	The destination of the solutions.
+	 */
+	public void writeText(SolutionSink sink)
+	{
+		SolutionFormatter formatter = new SolutionFormatter(n);
+		char[] separator = ": ".toCharArray();
+		int[] s = new int[n];
+		
+		for(long i = 0; i < count; i++){
+			get(i, s);
+			formatter.clear();
+			formatter.appendNumber(i + 1);
+			formatter.append(separator);
+			formatter.appendSolution(s);
+			sink.write(formatter.getBuffer(), formatter.length());
+		}
+		if(count == 0){
+			sink.write("The problem for n = " + n + " has no solution.");
+		}
+	}
+}
@@ -0,0 +1,204 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * It represents a compact binary file of solutions. The file begins with a header of HEADER_SIZE bytes:
+ * 
+ * Bytes 0 - 3:		The characters "QNSB".
+ * Byte 4:			The version of the format.
+ * Byte 5:			The board size n.
+ * Byte 6:			The number of bits used for every row.
+ * Byte 7:			The order of the solutions, ORDER_LISTED if they follow the order of the text output.
+ * Byte 8:			ALL_SOLUTIONS or FUNDAMENTAL_SOLUTIONS.
+ * Bytes 16 - 23:	The number of solutions.
+ * 
+ * Then every solution takes the same number of bytes, so solution i can be read directly. The rows of 
+ * the columns a, b, c... are stored from 0 to n - 1 in that order, starting at the lowest bit.
+ * 
+ * The writer does not end the application: if the file cannot be written, the next solutions are 
+ * discarded and the problem is reported by close().
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class BinarySolutionWriter implements SolutionListener
+{
+	public static final byte[] MAGIC = {'Q', 'N', 'S', 'B'};
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 24;
+	public static final int COUNT_POSITION = 16;
+	public static final int ORDER_LISTED = 0;
+	public static final int ALL_SOLUTIONS = 0;
+	public static final int FUNDAMENTAL_SOLUTIONS = 1;
+	
+	private String file;					//Save the name of the binary file.
+	private FileChannel channel;			//Save the open binary file.
+	private ByteBuffer buffer;				//Save the bytes waiting to be written.
+	private int n;							//Save the board size.
+	private int bits;						//Save the number of bits of every row.
+	private int recordSize;					//Save the number of bytes of every solution.
+	private long count;						//Save the number of solutions written.
+	private IOException error;				//Save the first problem writing the file, null if there is none.
+	
+	/**
+	 * Constructor for BinarySolutionWriter. The file is opened, created if it does not exist and emptied 
+	 * otherwise, and its header is written when the first solutions are.
+	 * 
+	 * @param file				The name of the binary file.
+	 * @param n					The size of the board.
+	 * @param symmetry			ALL_SOLUTIONS or FUNDAMENTAL_SOLUTIONS.
+	 * @throws IOException		If the file cannot be opened.
+	 */
+	public BinarySolutionWriter(String file, int n, int symmetry) throws IOException
+	{
+		this.file = file;
+		this.n = n;
+		error = null;
+		bits = bitsPerRow(n);
+		recordSize = recordSize(n);
+		count = 0;
+		buffer = ByteBuffer.allocate(64 * 1024);
+		
+		buffer.put(MAGIC);
+		buffer.put((byte) VERSION);
+		buffer.put((byte) n);
+		buffer.put((byte) bits);
+		buffer.put((byte) ORDER_LISTED);
+		buffer.put((byte) symmetry);
+		while(buffer.position() < HEADER_SIZE){		//The count is written when the file is closed.
+			buffer.put((byte) 0);
+		}
+		channel = FileChannel.open(Paths.get(file), StandardOpenOption.CREATE, StandardOpenOption.WRITE, 
+				StandardOpenOption.TRUNCATE_EXISTING);
+	}
+	
+	/**
+	 * Returns the number of bits needed to store a row of a board of size n.
+	 * 
+	 * @param n		The size of the board.
+	 * @return		The number of bits of every row.
+	 */
+	public static int bitsPerRow(int n)
+	{
+		return n <= 16 ? 4 : 5;
+	}
+	
+	/**
+	 * Returns the number of bytes needed to store a solution for a board of size n.
+	 * 
+	 * @param n		The size of the board.
+	 * @return		The number of bytes of every solution.
+	 */
+	public static int recordSize(int n)
+	{
+		return (n * bitsPerRow(n) + 7) / 8;
+	}
+	
+	/**
+	 * Returns the name of the binary file.
+	 * 
+	 * @return	The name of the binary file.
+	 */
+	public String getFile()
+	{
+		return file;
+	}
+	
+	/**
+	 * Returns the number of solutions written.
+	 * 
+	 * @return	The number of solutions written.
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+	
+	/**
+	 * Write a solution.
+	 * 
+	 * @param s		A vector of integers is the solution to the problem.
+	 */
+	public void accept(int[] s)
+	{
+		if(error != null){
+			return;
+		}
+		if(buffer.remaining() < recordSize){
+			flush();
+		}
+		int acc = 0;		//Bits waiting to complete a byte.
+		int accBits = 0;
+		for(int i = 0; i < n; i++){
+			acc |= (s[i] - 1) << accBits;
+			accBits += bits;
+			while(accBits >= 8){
+				buffer.put((byte) acc);
+				acc >>>= 8;
+				accBits -= 8;
+			}
+		}
+		if(accBits > 0){
+			buffer.put((byte) acc);
+		}
+		count++;
+	}
+	
+	/**
+	 * The positions tried are not stored.
+	 * 
+	 * @param s		An array of positive integers.
+	 */
+	public void reject(int[] s)
+	{
+	}
+	
+	/**
+	 * Write the pending solutions and the number of solutions, and close the file.
+	 * 
+	 * @throws IOException		If the file could not be written, now or while the solutions were written.
+	 */
+	public void close() throws IOException
+	{
+		try{
+			flush();
+			if(error == null){
+				ByteBuffer total = ByteBuffer.allocate(8);
+				total.putLong(0, count);
+				channel.write(total, COUNT_POSITION);
+			}
+		}
+		catch(IOException e){
+			error = e;
+		}
+		finally{
+			channel.close();
+		}
+		if(error != null){
+			throw error;
+		}
+	}
+	
+	/**
+	 * Write the bytes waiting in the buffer. If they cannot be written, the problem is kept for close().
+	 */
+	private void flush()
+	{
+		if(error != null){
+			return;
+		}
+		try{
+			buffer.flip();
+			while(buffer.hasRemaining()){
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+		catch(IOException e){
+			error = e;
+		}
+	}
+}
@@ -0,0 +1,257 @@
+/**
+ * Solver engine that keeps the occupied rows and both diagonals as bit masks, so checking whether 
+ * a square is free costs the same whatever the number of queens already placed. Bit i of each mask 
+ * represents row i + 1 of the board.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class BitmaskEngine implements SolverEngine
+{
+	public static final int MAX_N = 31;		//Largest board size that fits in the masks.
+	
+	/**
+	 * Default constructor for BitmaskEngine.
+	 */
+	public BitmaskEngine()
+	{
+	}
+	
+	/**
+	 * Find all solutions to the problem and pass them to a listener.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	public void queens(int[] s, int n, boolean isTrace, SolutionListener listener)
+	{
+		if(n > MAX_N){
+			throw new IllegalArgumentException("The board size cannot be greater than " + MAX_N + ".");
+		}
+		if(n > 0){
+			queens(s, n, 0, (1 << n) - 1, 0, 0, 0, isTrace, listener);
+		}
+	}
+	
+	/**
+	 * Count the solutions to the problem without building them.
+	 * 
+	 * @param n		A positive integer that is the size of the board.
+	 * @return		The number of solutions.
+	 */
+	public long count(int n)
+	{
+		if(n > MAX_N){
+			throw new IllegalArgumentException("The board size cannot be greater than " + MAX_N + ".");
+		}
+		if(n <= 0){
+			return 0;
+		}
+		
+		return countCompletions((1 << n) - 1, 0, 0, 0);
+	}
+	
+	/**
+	 * Find all solutions that extend the queens already placed in the columns before k and pass 
+	 * them to a listener.
+	 * 
+	 * @param s			A vector of integers with the queens already placed.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param k			A positive integer that is the queen to be placed.
+	 * @param rows		The rows already occupied.
+	 * @param ld		The rows attacked in column k by the ascending diagonals.
+	 * @param rd		The rows attacked in column k by the descending diagonals.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	public void queens(int[] s, int n, int k, int rows, int ld, int rd, boolean isTrace, SolutionListener listener)
+	{
+		if(n > MAX_N){
+			throw new IllegalArgumentException("The board size cannot be greater than " + MAX_N + ".");
+		}
+		int mask = (1 << n) - 1;
+		if(k == n){		//All the queens are already placed.
+			listener.accept(s);
+		}
+		else{
+			queens(s, n, k, mask, rows, ld & mask, rd, isTrace, listener);
+		}
+	}
+	
+	/**
+	 * Count the solutions that extend the queens already placed.
+	 * 
+	 * @param n		A positive integer that is the size of the board.
+	 * @param rows	The rows already occupied.
+	 * @param ld	The rows attacked in the next column by the ascending diagonals.
+	 * @param rd	The rows attacked in the next column by the descending diagonals.
+	 * @return		The number of solutions.
+	 */
+	public long count(int n, int rows, int ld, int rd)
+	{
+		if(n > MAX_N){
+			throw new IllegalArgumentException("The board size cannot be greater than " + MAX_N + ".");
+		}
+		int mask = (1 << n) - 1;
+		
+		return countCompletions(mask, rows, ld & mask, rd);
+	}
+	
+	/**
+	 * Find all solutions that meet the conditions of a partial placement and pass them to a listener. 
+	 * Only the rows allowed by the placement are tried in every column.
+	 * 
+	 * @param s				A vector of integers of length n, solution to the problem.
+	 * @param placement		The fixed queens and the squares that must stay empty.
+	 * @param listener		The receiver of the solutions.
+	 */
+	public void queens(int[] s, PartialPlacement placement, SolutionListener listener)
+	{
+		queens(s, placement.getN(), 0, placement.getAllowedRows(), 0, 0, 0, listener);
+	}
+	
+	/**
+	 * Count the solutions that meet the conditions of a partial placement without building them.
+	 * 
+	 * @param placement		The fixed queens and the squares that must stay empty.
+	 * @return				The number of solutions.
+	 */
+	public long count(PartialPlacement placement)
+	{
+		int mask = (1 << placement.getN()) - 1;
+		
+		return countCompletions(mask, placement.getAllowedRows(), 0, 0, 0, 0);
+	}
+	
+	/**
+	 * Place the queen k and all the following ones. The free rows are visited from the lowest 
+	 * to the highest, which keeps the order of the solutions.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param k			A positive integer that is the queen to be placed.
+	 * @param mask		A mask with the n rows of the board.
+	 * @param rows		The rows already occupied.
+	 * @param ld		The rows attacked in column k by the ascending diagonals.
+	 * @param rd		The rows attacked in column k by the descending diagonals.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	private void queens(int[] s, int n, int k, int mask, int rows, int ld, int rd, boolean isTrace, 
+			SolutionListener listener)
+	{
+		int free = ~(rows | ld | rd) & mask;
+		
+		if(k == n - 1){
+			if(isTrace && n > 1){
+				//Every row of the last column is tried so that the trace can show it.
+				for(int i = 0; i < n; i++){
+					s[k] = i + 1;
+					if((free & (1 << i)) != 0){
+						listener.accept(s);
+					}
+					listener.reject(s);
+				}
+			}
+			else if(free != 0){
+				//At most one row can be free in the last column.
+				s[k] = Integer.numberOfTrailingZeros(free) + 1;
+				listener.accept(s);
+			}
+		}
+		else{
+			while(free != 0){
+				int bit = free & -free;		//The lowest free row.
+				free ^= bit;
+				s[k] = Integer.numberOfTrailingZeros(bit) + 1;
+				queens(s, n, k + 1, mask, rows | bit, (ld | bit) << 1, (rd | bit) >>> 1, isTrace, listener);
+			}
+		}
+	}
+	
+	/**
+	 * Place the queen k and all the following ones in the rows allowed for every column.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param k			A positive integer that is the queen to be placed.
+	 * @param allowed	The rows allowed in every column.
+	 * @param rows		The rows already occupied.
+	 * @param ld		The rows attacked in column k by the ascending diagonals.
+	 * @param rd		The rows attacked in column k by the descending diagonals.
+	 * @param listener	The receiver of the solutions.
+	 */
+	private void queens(int[] s, int n, int k, int[] allowed, int rows, int ld, int rd, SolutionListener listener)
+	{
+		int free = ~(rows | ld | rd) & allowed[k];
+		while(free != 0){
+			int bit = free & -free;
+			free ^= bit;
+			s[k] = Integer.numberOfTrailingZeros(bit) + 1;
+			if(k == n - 1){
+				listener.accept(s);
+			}
+			else{
+				queens(s, n, k + 1, allowed, rows | bit, (ld | bit) << 1, (rd | bit) >>> 1, listener);
+			}
+		}
+	}
+	
+	/**
+	 * Count the solutions that extend the queens already placed. The board is full when all 
+	 * the rows of the mask are occupied.
+	 * 
+	 * @param mask		A mask with the n rows of the board.
+	 * @param rows		The rows already occupied.
+	 * @param ld		The rows attacked in the next column by the ascending diagonals.
+	 * @param rd		The rows attacked in the next column by the descending diagonals.
+	 * @return			The number of solutions.
+	 */
+	private long countCompletions(int mask, int rows, int ld, int rd)
+	{
+		if(rows == mask){
+			return 1;
+		}
+		
+		long total = 0;
+		int free = ~(rows | ld | rd) & mask;
+		while(free != 0){
+			int bit = free & -free;
+			free ^= bit;
+			total += countCompletions(mask, rows | bit, (ld | bit) << 1, (rd | bit) >>> 1);
+		}
+		
+		return total;
+	}
+	
+	/**
+	 * Count the solutions that extend the queens already placed in the columns before k, trying 
+	 * only the rows allowed for every column.
+	 * 
+	 * @param mask		A mask with the n rows of the board.
+	 * @param allowed	The rows allowed in every column.
+	 * @param k			The column of the next queen.
+	 * @param rows		The rows already occupied.
+	 * @param ld		The rows attacked in the next column by the ascending diagonals.
+	 * @param rd		The rows attacked in the next column by the descending diagonals.
+	 * @return			The number of solutions.
+	 */
+	private long countCompletions(int mask, int[] allowed, int k, int rows, int ld, int rd)
+	{
+		if(rows == mask){
+			return 1;
+		}
+		
+		long total = 0;
+		int free = ~(rows | ld | rd) & allowed[k];
+		while(free != 0){
+			int bit = free & -free;
+			free ^= bit;
+			total += countCompletions(mask, allowed, k + 1, rows | bit, (ld | bit) << 1, (rd | bit) >>> 1);
+		}
+		
+		return total;
+	}
+}
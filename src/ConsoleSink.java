@@ -0,0 +1,70 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+
+/**
+ * It represents the standard output as a destination of the solutions. The lines are kept in a 
+ * buffer and written in blocks instead of one by one.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class ConsoleSink implements SolutionSink
+{
+	private BufferedWriter out;		//Save the buffered standard output.
+	
+	/**
+	 * Default constructor for ConsoleSink. An empty line separates the solutions from the command.
+	 */
+	public ConsoleSink()
+	{
+		out = new BufferedWriter(new OutputStreamWriter(System.out));
+		write("");
+	}
+	
+	/**
+	 * Write a line with a solution or a message about the problem.
+	 * 
+	 * @param line	The line to write.
+	 */
+	public void write(String line)
+	{
+		try{
+			out.write(line);
+			out.newLine();
+		}
+		catch(IOException e){
+			System.out.println("Error: There was a problem writing to the standard output.");
+		}
+	}
+	
+	/**
+	 * Write a line stored in an array of characters.
+	 * 
+	 * @param line		An array with the line to write.
+	 * @param length	The number of characters of the line.
+	 */
+	public void write(char[] line, int length)
+	{
+		try{
+			out.write(line, 0, length);
+			out.newLine();
+		}
+		catch(IOException e){
+			System.out.println("Error: There was a problem writing to the standard output.");
+		}
+	}
+	
+	/**
+	 * Write the lines that are still pending. The standard output is not closed.
+	 */
+	public void close()
+	{
+		try{
+			out.flush();
+		}
+		catch(IOException e){
+			System.out.println("Error: There was a problem writing to the standard output.");
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ * Builds a solution to the problem directly, without any search, for any board with n >= 4. The rows
+ * of the queens are the even rows followed by the odd rows, with a change in the order when the
+ * remainder of n divided by 6 is 2 or 3:
+ * 
+ * Remainder 2: the odd rows start with 3, 1 and row 5 goes to the end (2, 4, ..., 3, 1, 7, 9, ..., 5).
+ * Remainder 3: row 2 goes to the end of the even rows and rows 1 and 3 to the end of the odd rows
+ * (4, 6, ..., 2, 5, 7, ..., 1, 3).
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public final class ConstructiveSolution
+{
+	public static final int MIN_N = 4;		//Smallest board size with a solution built directly.
+	
+	/**
+	 * Private constructor, the class only has static methods.
+	 */
+	private ConstructiveSolution()
+	{
+	}
+	
+	/**
+	 * Returns a solution to the problem for a board size.
+	 * 
+	 * @param n		The size of the board, greater than or equal to MIN_N.
+	 * @return		The row of the queen of every column, the first one for column a.
+	 */
+	public static int[] create(int n)
+	{
+		if(n < MIN_N){
+			throw new IllegalArgumentException("A solution can only be built directly for n >= " + MIN_N + ".");
+		}
+		
+		int[] s = new int[n];
+		int k = 0;
+		int remainder = n % 6;
+		
+		//Even rows.
+		int firstEven = (remainder == 3) ? 4 : 2;
+		for(int row = firstEven; row <= n; row += 2){
+			s[k++] = row;
+		}
+		if(remainder == 3){
+			s[k++] = 2;
+		}
+		
+		//Odd rows.
+		if(remainder == 2){
+			s[k++] = 3;
+			s[k++] = 1;
+			for(int row = 7; row <= n; row += 2){
+				s[k++] = row;
+			}
+			s[k++] = 5;
+		}
+		else if(remainder == 3){
+			for(int row = 5; row <= n; row += 2){
+				s[k++] = row;
+			}
+			s[k++] = 1;
+			s[k++] = 3;
+		}
+		else{
+			for(int row = 1; row <= n; row += 2){
+				s[k++] = row;
+			}
+		}
+		
+		return s;
+	}
+}
@@ -0,0 +1,493 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Solver engine that counts the solutions in several worker processes of the same machine. The engine is
+ * the coordinator: it places the first PREFIX_DEPTH queens in every valid way, starts the workers with
+ * "queens -wp port" and hands them the prefixes over sockets on the loopback interface, one at a time.
+ * Every worker counts the solutions that extend a prefix with BitmaskEngine and sends the count back.
+ * 
+ * The workers are started by the first count and kept for the next ones until close() is called, so a
+ * range of board sizes only starts them once. If a worker dies or does not answer within READ_TIMEOUT,
+ * the prefix it was counting is handed to another one, and if all of them are lost, the coordinator
+ * counts the prefixes left itself. The solutions are found by BitmaskEngine, without workers.
+ * 
+ * The protocol is binary: the coordinator sends n and the masks of the prefix (rows, ld, rd) as four
+ * integers and the worker answers with the count as a long.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class DistributedEngine implements SolverEngine
+{
+	public static final int PREFIX_DEPTH = 3;			//Number of queens placed in every prefix.
+	private static final int CONNECT_TIMEOUT = 30000;	//Milliseconds to wait for the workers to connect.
+	private static final int READ_TIMEOUT = 300000;		//Milliseconds to wait for the count of a prefix.
+	private static final int POLL_TIME = 50;			//Milliseconds a worker waits for a prefix sent again.
+	
+	private int workers;				//Save the number of worker processes.
+	private BitmaskEngine engine;		//Save the engine that finds the solutions and counts without workers.
+	private int n;						//Save the board size of the last count.
+	private int[][] prefixes;			//Save the masks rows, ld and rd of every prefix of the last count.
+	private long[] counts;				//Save the number of solutions of every prefix of the last count.
+	private ServerSocket server;			//Save the socket where the workers connect, null if they are not started.
+	private ArrayList<Process> processes;	//Save the worker processes started.
+	private ArrayList<WorkerLink> links;	//Save the workers alive at the start of the last count.
+	private long localPrefixes;			//Save the prefixes counted by the coordinator in the last count.
+	private long time;					//Save the time spent in the last count in milliseconds.
+	
+	/**
+	 * Constructor for DistributedEngine in which the number of worker processes is passed as a parameter.
+	 * 
+	 * @param workers	The number of worker processes, greater than 0.
+	 */
+	public DistributedEngine(int workers)
+	{
+		this.workers = workers;
+		engine = new BitmaskEngine();
+		n = 0;
+		prefixes = new int[0][];
+		counts = new long[0];
+		server = null;
+		processes = new ArrayList<Process>();
+		links = new ArrayList<WorkerLink>();
+		localPrefixes = 0;
+		time = 0;
+	}
+	
+	/**
+	 * Returns the number of worker processes.
+	 * 
+	 * @return	The number of worker processes.
+	 */
+	public int getWorkers()
+	{
+		return workers;
+	}
+	
+	/**
+	 * Returns the number of solutions of every prefix of the last count, in the order of the prefixes.
+	 * 
+	 * @return	The number of solutions of every prefix.
+	 */
+	public long[] getCounts()
+	{
+		return counts.clone();
+	}
+	
+	/**
+	 * Returns the lines that summarize the last count, to be written in the log: the total and, for every
+	 * worker, the prefixes counted, their solutions and the prefixes counted per second.
+	 * 
+	 * @return	The summary of the last count.
+	 */
+	public String getSummary()
+	{
+		long total = 0;
+		for(int i = 0; i < counts.length; i++){
+			total += counts[i];
+		}
+		StringBuilder summary = new StringBuilder();
+		summary.append("Distributed count for n = ").append(n).append(": ").append(total).append(" solutions, ")
+				.append(prefixes.length).append(" prefixes of ").append(Math.min(PREFIX_DEPTH, n)).append(" queens, ")
+				.append(links.size()).append(" of ").append(workers).append(" workers connected, ").append(time)
+				.append(" ms.");
+		for(int i = 0; i < links.size(); i++){
+			WorkerLink link = links.get(i);
+			double seconds = Math.max(link.time, 1) / 1e9;
+			summary.append(System.lineSeparator()).append(String.format(Locale.ROOT,
+					"Worker %d: %d prefixes, %d solutions, %.1f prefixes/s, %.1f million solutions/s%s", i + 1,
+					link.prefixes, link.solutions, link.prefixes / seconds, link.solutions / seconds / 1e6,
+					link.isLost ? ", stopped before the end and its prefix was sent again." : "."));
+		}
+		if(localPrefixes > 0){
+			summary.append(System.lineSeparator()).append("Coordinator: ").append(localPrefixes)
+					.append(" prefixes counted without workers.");
+		}
+		
+		return summary.toString();
+	}
+	
+	/**
+	 * Find all solutions to the problem in this process and pass them to a listener.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	public void queens(int[] s, int n, boolean isTrace, SolutionListener listener)
+	{
+		engine.queens(s, n, isTrace, listener);
+	}
+	
+	/**
+	 * Count the solutions to the problem with the worker processes, starting them if this is the first 
+	 * count.
+	 * 
+	 * @param n		A positive integer that is the size of the board.
+	 * @return		The number of solutions.
+	 */
+	public long count(int n)
+	{
+		if(n > BitmaskEngine.MAX_N){
+			throw new IllegalArgumentException("The board size cannot be greater than " + BitmaskEngine.MAX_N + ".");
+		}
+		long start = System.nanoTime();
+		this.n = Math.max(n, 0);
+		ArrayList<int[]> list = new ArrayList<int[]>();
+		if(n > 0){
+			addPrefixes(list, (1 << n) - 1, Math.min(PREFIX_DEPTH, n), 0, 0, 0);
+		}
+		prefixes = list.toArray(new int[list.size()][]);
+		counts = new long[prefixes.length];
+		localPrefixes = 0;
+		if(server == null){
+			start();
+		}
+		//The workers lost in a previous count are forgotten and the others start from 0.
+		ArrayList<WorkerLink> alive = new ArrayList<WorkerLink>();
+		for(int i = 0; i < links.size(); i++){
+			WorkerLink link = links.get(i);
+			if(!link.isLost){
+				link.prefixes = 0;
+				link.solutions = 0;
+				link.time = 0;
+				alive.add(link);
+			}
+		}
+		links = alive;
+		
+		LinkedBlockingQueue<Integer> pending = new LinkedBlockingQueue<Integer>();
+		for(int i = 0; i < prefixes.length; i++){
+			pending.add(i);
+		}
+		CountDownLatch done = new CountDownLatch(prefixes.length);
+		if(prefixes.length > 0){
+			distribute(pending, done);
+		}
+		
+		long total = 0;
+		for(int i = 0; i < counts.length; i++){
+			total += counts[i];
+		}
+		time = (System.nanoTime() - start) / 1000000;
+		
+		return total;
+	}
+	
+	/**
+	 * Close the connections with the workers, which makes them end, and release the port. The next count 
+	 * starts new workers.
+	 */
+	public void close()
+	{
+		for(int i = 0; i < links.size(); i++){
+			links.get(i).close();
+		}
+		links = new ArrayList<WorkerLink>();
+		try{
+			if(server != null){
+				server.close();
+			}
+		}
+		catch(IOException e){
+			//The port is released when the process ends.
+		}
+		server = null;
+		for(int i = 0; i < processes.size(); i++){
+			processes.get(i).destroy();
+		}
+		processes = new ArrayList<Process>();
+	}
+	
+	/**
+	 * Work for a coordinator that listens on a port of the loopback interface: count the solutions of the
+	 * prefixes received until the coordinator closes the connection.
+	 * 
+	 * @param port				The port of the coordinator.
+	 * @throws IOException		If the coordinator cannot be reached.
+	 */
+	public static void work(int port) throws IOException
+	{
+		BitmaskEngine engine = new BitmaskEngine();
+		Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+		try{
+			socket.setTcpNoDelay(true);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			while(true){
+				int size;
+				try{
+					size = in.readInt();
+				}
+				catch(EOFException e){
+					//The coordinator has no more prefixes.
+					return;
+				}
+				int rows = in.readInt();
+				int ld = in.readInt();
+				int rd = in.readInt();
+				out.writeLong(engine.count(size, rows, ld, rd));
+				out.flush();
+			}
+		}
+		finally{
+			socket.close();
+		}
+	}
+	
+	/**
+	 * Start the workers and wait until they connect. The workers that do not connect in time are not used.
+	 */
+	private void start()
+	{
+		try{
+			server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress());
+			server.setSoTimeout(CONNECT_TIMEOUT);
+			for(int i = 0; i < workers; i++){
+				processes.add(startWorker(server.getLocalPort()));
+			}
+			for(int i = 0; i < workers; i++){
+				links.add(new WorkerLink(server.accept()));
+			}
+		}
+		catch(SocketTimeoutException e){
+			//The workers connected so far do the work.
+		}
+		catch(IOException e){
+			//The workers cannot be started, so the coordinator does the work.
+		}
+	}
+	
+	/**
+	 * Hand the prefixes to the workers and wait until all of them have been counted. The prefixes left 
+	 * when no worker is alive are counted by this process.
+	 * 
+	 * @param pending	The prefixes that have not been counted.
+	 * @param done		It reaches 0 when all the prefixes have been counted.
+	 */
+	private void distribute(LinkedBlockingQueue<Integer> pending, CountDownLatch done)
+	{
+		ArrayList<Thread> threads = new ArrayList<Thread>();
+		AtomicInteger alive = new AtomicInteger(links.size());
+		for(int i = 0; i < links.size(); i++){
+			Thread thread = new Thread(new Dispatcher(links.get(i), pending, done, alive), "Worker " + (i + 1));
+			thread.setDaemon(true);
+			thread.start();
+			threads.add(thread);
+		}
+		
+		try{
+			while(!done.await(POLL_TIME, TimeUnit.MILLISECONDS)){
+				if(alive.get() == 0){
+					countPending(pending, done);
+				}
+			}
+			//The threads waiting for a prefix sent again stop at once.
+			for(int i = 0; i < threads.size(); i++){
+				threads.get(i).interrupt();
+				threads.get(i).join();
+			}
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Count in this process the prefixes that have not been counted.
+	 * 
+	 * @param pending	The prefixes that have not been counted.
+	 * @param done		It reaches 0 when all the prefixes have been counted.
+	 */
+	private void countPending(LinkedBlockingQueue<Integer> pending, CountDownLatch done)
+	{
+		Integer index = pending.poll();
+		while(index != null){
+			int[] prefix = prefixes[index];
+			counts[index] = engine.count(n, prefix[0], prefix[1], prefix[2]);
+			localPrefixes++;
+			done.countDown();
+			index = pending.poll();
+		}
+	}
+	
+	/**
+	 * Start a worker process with the same Java and class path as this one.
+	 * 
+	 * @param port				The port of the coordinator.
+	 * @return					The worker process.
+	 * @throws IOException		If the process cannot be started.
+	 */
+	private static Process startWorker(int port) throws IOException
+	{
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+				"Queens", "-wp", String.valueOf(port));
+		builder.redirectErrorStream(true);
+		builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+		
+		return builder.start();
+	}
+	
+	/**
+	 * Add the masks of every valid placement of the next queens to a list.
+	 * 
+	 * @param list		The list of prefixes.
+	 * @param mask		A mask with the n rows of the board.
+	 * @param depth		The number of queens left to place.
+	 * @param rows		The rows already occupied.
+	 * @param ld		The rows attacked in the next column by the ascending diagonals.
+	 * @param rd		The rows attacked in the next column by the descending diagonals.
+	 */
+	private static void addPrefixes(ArrayList<int[]> list, int mask, int depth, int rows, int ld, int rd)
+	{
+		if(depth == 0){
+			list.add(new int[] {rows, ld & mask, rd});
+			return;
+		}
+		
+		int free = ~(rows | ld | rd) & mask;
+		while(free != 0){
+			int bit = free & -free;
+			free ^= bit;
+			addPrefixes(list, mask, depth - 1, rows | bit, (ld | bit) << 1, (rd | bit) >>> 1);
+		}
+	}
+	
+	/**
+	 * It represents the connection with a worker and what it has counted.
+	 */
+	private static class WorkerLink
+	{
+		private Socket socket;			//Save the connection with the worker.
+		private DataInputStream in;		//Save the stream where the counts are received.
+		private DataOutputStream out;	//Save the stream where the prefixes are sent.
+		private long prefixes;			//Save the number of prefixes counted by the worker.
+		private long solutions;			//Save the number of solutions of those prefixes.
+		private long time;				//Save the time spent waiting for the worker in nanoseconds.
+		private boolean isLost;			//Save whether the worker stopped before all the prefixes were counted.
+		
+		/**
+		 * Constructor for WorkerLink. A count that takes longer than READ_TIMEOUT makes the reading fail.
+		 * 
+		 * @param socket			The connection with the worker.
+		 * @throws IOException		If the streams of the connection cannot be opened.
+		 */
+		WorkerLink(Socket socket) throws IOException
+		{
+			this.socket = socket;
+			socket.setTcpNoDelay(true);
+			socket.setSoTimeout(READ_TIMEOUT);
+			in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			prefixes = 0;
+			solutions = 0;
+			time = 0;
+			isLost = false;
+		}
+		
+		/**
+		 * Close the connection, which tells the worker that there are no more prefixes.
+		 */
+		void close()
+		{
+			try{
+				socket.close();
+			}
+			catch(IOException e){
+				//The worker ends anyway when the coordinator ends.
+			}
+		}
+	}
+	
+	/**
+	 * It represents the thread of the coordinator that hands the prefixes to a worker.
+	 */
+	private class Dispatcher implements Runnable
+	{
+		private WorkerLink link;						//Save the worker.
+		private LinkedBlockingQueue<Integer> pending;	//Save the prefixes that have not been counted.
+		private CountDownLatch done;					//Save the number of prefixes left.
+		private AtomicInteger alive;					//Save the number of workers alive.
+		
+		/**
+		 * Constructor for Dispatcher.
+		 * 
+		 * @param link		The worker.
+		 * @param pending	The prefixes that have not been counted.
+		 * @param done		It reaches 0 when all the prefixes have been counted.
+		 * @param alive		The number of workers alive.
+		 */
+		Dispatcher(WorkerLink link, LinkedBlockingQueue<Integer> pending, CountDownLatch done, AtomicInteger alive)
+		{
+			this.link = link;
+			this.pending = pending;
+			this.done = done;
+			this.alive = alive;
+		}
+		
+		/**
+		 * Hand prefixes to the worker until all of them have been counted. Another worker may die and
+		 * return its prefix, so the queue is polled until the end.
+		 */
+		public void run()
+		{
+			Integer index = null;
+			DataInputStream in = link.in;
+			DataOutputStream out = link.out;
+			try{
+				while(done.getCount() > 0){
+					index = pending.poll(POLL_TIME, TimeUnit.MILLISECONDS);
+					if(index != null){
+						int[] prefix = prefixes[index];
+						long start = System.nanoTime();
+						out.writeInt(n);
+						out.writeInt(prefix[0]);
+						out.writeInt(prefix[1]);
+						out.writeInt(prefix[2]);
+						out.flush();
+						long count = in.readLong();
+						link.time += System.nanoTime() - start;
+						counts[index] = count;
+						link.prefixes++;
+						link.solutions += count;
+						index = null;
+						done.countDown();
+					}
+				}
+			}
+			catch(IOException e){
+				//The worker has died or has not answered in time (SocketTimeoutException), so its prefix is 
+				//sent to another one. The connection is closed, since a late answer cannot be told apart.
+				link.isLost = true;
+				link.close();
+				if(index != null){
+					pending.add(index);
+				}
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+			finally{
+				alive.decrementAndGet();
+			}
+		}
+	}
+}
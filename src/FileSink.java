@@ -0,0 +1,104 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * It represents an output file as a destination of the solutions. The file stays open while the 
+ * problem is solved and the lines are written through a buffer.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class FileSink implements SolutionSink
+{
+	private String file;					//Save the name of the output file.
+	private BufferedWriter out;				//Save the buffered output file.
+	private OutputManager outputManager;	//Save the output manager that reports the errors.
+	
+	/**
+	 * Constructor for FileSink in which the name of the output file and the output manager that 
+	 * reports the errors are passed as parameters. The file is created.
+	 * 
+	 * @param file				The name of the output file.
+	 * @param outputManager		The output manager that reports the errors.
+	 */
+	public FileSink(String file, OutputManager outputManager)
+	{
+		this.file = file;
+		this.outputManager = outputManager;
+		try{
+			out = new BufferedWriter(new FileWriter(new File(file)));
+		}
+		catch(IOException e){
+			String outputProblem = "Error: There was a problem generating the output file: " + file;
+			outputManager.writeInLog(outputProblem, true);
+			System.exit(-1);
+		}
+	}
+	
+	/**
+	 * Returns the name of the output file.
+	 * 
+	 * @return	The name of the output file.
+	 */
+	public String getFile()
+	{
+		return file;
+	}
+	
+	/**
+	 * Write a line with a solution or a message about the problem.
+	 * 
+	 * @param line	The line to write.
+	 */
+	public void write(String line)
+	{
+		try{
+			out.write(line);
+			out.newLine();
+		}
+		catch(IOException e){
+			String outputProblem = "Error: There was a problem generating the output file: " + file;
+			outputManager.writeInLog(outputProblem, true);
+			System.exit(-1);
+		}
+	}
+	
+	/**
+	 * Write a line stored in an array of characters.
+	 * 
+	 * @param line		An array with the line to write.
+	 * @param length	The number of characters of the line.
+	 */
+	public void write(char[] line, int length)
+	{
+		try{
+			out.write(line, 0, length);
+			out.newLine();
+		}
+		catch(IOException e){
+			String outputProblem = "Error: There was a problem generating the output file: " + file;
+			outputManager.writeInLog(outputProblem, true);
+			System.exit(-1);
+		}
+	}
+	
+	/**
+	 * Write the lines that are still pending and close the file.
+	 */
+	public void close()
+	{
+		try{
+			out.close();
+		}
+		catch(IOException e){
+			String closingOutputErr = "Error: There was a problem closing the output file: " + file;
+			outputManager.writeInLog(closingOutputErr, true);
+			System.exit(-1);
+		}
+		//It shows the user that the writing process was successful.
+		String success = "Information: File " + "\"" + file + "\"" + " successfully generated.";
+		outputManager.writeInLog(success, true);
+	}
+}
@@ -0,0 +1,251 @@
+/**
+ * Solver engine that only finds the fundamental solutions, that is, one solution for every group of 
+ * solutions related by the rotations and reflections of the board. The solution chosen for each group 
+ * is the smallest one in the order in which the solutions are listed. The total number of solutions 
+ * is obtained from the size of every group.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class FundamentalEngine implements SolverEngine
+{
+	private static final int TRANSFORMS = 7;	//Number of rotations and reflections, excluding the identity.
+	
+	private BitmaskEngine engine;		//Save the engine that explores the board.
+	private int[] aux;					//Save a transformed solution.
+	private long unique;				//Save the number of fundamental solutions of the last search.
+	private long total;					//Save the total number of solutions of the last search.
+	
+	/**
+	 * Default constructor for FundamentalEngine.
+	 */
+	public FundamentalEngine()
+	{
+		engine = new BitmaskEngine();
+		aux = null;
+		unique = 0;
+		total = 0;
+	}
+	
+	/**
+	 * Returns the number of fundamental solutions found in the last search.
+	 * 
+	 * @return	The number of fundamental solutions found in the last search.
+	 */
+	public long getUnique()
+	{
+		return unique;
+	}
+	
+	/**
+	 * Returns the total number of solutions, fundamental or not, found in the last search.
+	 * 
+	 * @return	The total number of solutions found in the last search.
+	 */
+	public long getTotal()
+	{
+		return total;
+	}
+	
+	/**
+	 * Find the fundamental solutions to the problem and pass them to a listener. The smallest solution 
+	 * of a group never has its first queen in the upper half of column a, so that half is only explored 
+	 * when the trace is required.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	public void queens(int[] s, int n, boolean isTrace, SolutionListener listener)
+	{
+		search(s, n, isTrace, new Filter(listener));
+	}
+	
+	/**
+	 * Count the fundamental solutions to the problem. The total number of solutions is available 
+	 * afterwards through getTotal().
+	 * 
+	 * @param n		A positive integer that is the size of the board.
+	 * @return		The number of fundamental solutions.
+	 */
+	public long count(int n)
+	{
+		search(new int[Math.max(n, 0)], n, false, new Filter(null));
+		
+		return unique;
+	}
+	
+	/**
+	 * Check if a solution is the smallest one of its group, that is, if no rotation or reflection of 
+	 * the board gives a solution that is listed before it.
+	 * 
+	 * @param s		A vector of integers is the solution to the problem.
+	 * @return		True if it is the fundamental solution of its group, false otherwise.
+	 */
+	public boolean isCanonical(int[] s)
+	{
+		int n = s.length;
+		
+		//The mirror and the vertical reflection only need the first and the last queens to be rejected.
+		if(s[0] > n + 1 - s[0] || s[0] > s[n - 1] || s[0] > n + 1 - s[n - 1]){
+			return false;
+		}
+		for(int i = 0; i < TRANSFORMS; i++){
+			if(compare(transform(s, i), s) < 0){
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Returns the number of different solutions that are obtained by rotating and reflecting a solution.
+	 * 
+	 * @param s		A vector of integers is the solution to the problem.
+	 * @return		The number of solutions of its group: 1, 2, 4 or 8.
+	 */
+	public int groupSize(int[] s)
+	{
+		int equal = 1;		//The identity.
+		
+		for(int i = 0; i < TRANSFORMS; i++){
+			if(compare(transform(s, i), s) == 0){
+				equal++;
+			}
+		}
+		
+		return 8 / equal;
+	}
+	
+	/**
+	 * Explore the board and pass the solutions to a filter.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param filter	The filter of the fundamental solutions.
+	 */
+	private void search(int[] s, int n, boolean isTrace, Filter filter)
+	{
+		unique = 0;
+		total = 0;
+		if(isTrace){
+			engine.queens(s, n, true, filter);
+		}
+		else{
+			for(int i = 0; i < (n + 1) / 2; i++){
+				s[0] = i + 1;
+				engine.queens(s, n, 1, 1 << i, 1 << i << 1, 1 << i >>> 1, false, filter);
+			}
+		}
+	}
+	
+	/**
+	 * Apply a rotation or reflection of the board to a solution. The result is written in a shared array.
+	 * 
+	 * @param s			A vector of integers is the solution to the problem.
+	 * @param type		The transformation, from 0 to 6.
+	 * @return			The transformed solution.
+	 */
+	private int[] transform(int[] s, int type)
+	{
+		int n = s.length;
+		if(aux == null || aux.length != n){
+			aux = new int[n];
+		}
+		
+		for(int i = 0; i < n; i++){
+			switch(type){
+				case 0:		//Horizontal mirror.
+					aux[i] = n + 1 - s[i];
+					break;
+				case 1:		//Vertical reflection.
+					aux[i] = s[n - 1 - i];
+					break;
+				case 2:		//Rotation of 180 degrees.
+					aux[i] = n + 1 - s[n - 1 - i];
+					break;
+				case 3:		//Reflection on the main diagonal.
+					aux[s[i] - 1] = i + 1;
+					break;
+				case 4:		//Rotation of 90 degrees.
+					aux[s[i] - 1] = n - i;
+					break;
+				case 5:		//Rotation of 270 degrees.
+					aux[n - s[i]] = i + 1;
+					break;
+				default:	//Reflection on the anti-diagonal.
+					aux[n - s[i]] = n - i;
+					break;
+			}
+		}
+		
+		return aux;
+	}
+	
+	/**
+	 * Compare two solutions in the order in which they are listed.
+	 * 
+	 * @param a		A vector of integers.
+	 * @param b		A vector of integers of the same length.
+	 * @return		A negative value if a goes first, 0 if they are equal and a positive value otherwise.
+	 */
+	private int compare(int[] a, int[] b)
+	{
+		for(int i = 0; i < a.length; i++){
+			if(a[i] != b[i]){
+				return a[i] - b[i];
+			}
+		}
+		
+		return 0;
+	}
+	
+	/**
+	 * Lets through only the fundamental solutions and adds up the size of their groups.
+	 */
+	private class Filter implements SolutionListener
+	{
+		private SolutionListener listener;		//Save the receiver of the fundamental solutions.
+		
+		/**
+		 * Constructor for Filter.
+		 * 
+		 * @param listener	The receiver of the fundamental solutions, or null to only count them.
+		 */
+		Filter(SolutionListener listener)
+		{
+			this.listener = listener;
+		}
+		
+		/**
+		 * Pass the solution on if it is fundamental.
+		 * 
+		 * @param s		A vector of integers is the solution to the problem.
+		 */
+		public void accept(int[] s)
+		{
+			if(isCanonical(s)){
+				unique++;
+				total += groupSize(s);
+				if(listener != null){
+					listener.accept(s);
+				}
+			}
+		}
+		
+		/**
+		 * Pass on a position of the last column.
+		 * 
+		 * @param s		An array of positive integers.
+		 */
+		public void reject(int[] s)
+		{
+			if(listener != null){
+				listener.reject(s);
+			}
+		}
+	}
+}
@@ -0,0 +1,323 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * It represents the graphic output file, where each solution is written followed by a board with the 
+ * queens in place. The file stays open while the problem is solved and each solution is built in a 
+ * buffer that is reused, so it is written in a single operation. The empty board is built once and 
+ * each board is a copy of it with the queens in place.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class GraphicWriter
+{
+	private static final String NEW_LINE = System.lineSeparator();	//The line separator of the file.
+	
+	private String file;					//Save the name of the graphic file.
+	private BufferedWriter out;				//Save the buffered graphic file.
+	private char[] chars;					//Save the characters of the solution being built.
+	private char[] template;				//Save the empty board, null until the first board.
+	private int boardSize;					//Save the size of the empty board.
+	private OutputManager outputManager;	//Save the output manager that reports the errors.
+	
+	/**
+	 * Constructor for GraphicWriter in which the name of the graphic file and the output manager that 
+	 * reports the errors are passed as parameters. The file is created.
+	 * 
+	 * @param file				The name of the graphic file.
+	 * @param outputManager		The output manager that reports the errors.
+	 */
+	public GraphicWriter(String file, OutputManager outputManager)
+	{
+		this.file = file;
+		this.outputManager = outputManager;
+		chars = new char[0];
+		template = null;
+		boardSize = 0;
+		try{
+			out = new BufferedWriter(new FileWriter(new File(file)));
+		}
+		catch(IOException e){
+			String outputProblem = "Error: There was a problem generating the output file: " + file;
+			outputManager.writeInLog(outputProblem, true);
+			System.exit(-1);
+		}
+	}
+	
+	/**
+	 * Returns the name of the graphic file.
+	 * 
+	 * @return	The name of the graphic file.
+	 */
+	public String getFile()
+	{
+		return file;
+	}
+	
+	/**
+	 * Write a message about the problem, without a board.
+	 * 
+	 * @param message		The message to write.
+	 */
+	public void write(String message)
+	{
+		int length = prepareText(message, 0);
+		writeChars(length);
+	}
+	
+	/**
+	 * Write a solution followed by its board. The board is drawn from the row of the queen in each column.
+	 * 
+	 * @param solution		A String with the solution to the problem.
+	 * @param s				A vector of integers is the solution to the problem.
+	 */
+	public void write(String solution, int[] s)
+	{
+		prepareBoard(s.length);
+		int position = prepareText(solution, template.length);
+		System.arraycopy(template, 0, chars, position, template.length);
+		patchQueens(chars, position, s);
+		writeChars(position + template.length);
+	}
+	
+	/**
+	 * Write the solutions that are still pending and close the file.
+	 */
+	public void close()
+	{
+		try{
+			out.close();
+		}
+		catch(IOException e){
+			String closingOutputErr = "Error: There was a problem closing the output file: " + file;
+			outputManager.writeInLog(closingOutputErr, true);
+			System.exit(-1);
+		}
+		//It shows the user that the writing process was successful.
+		String success = "Information: File " + "\"" + file + "\"" + " successfully generated.";
+		outputManager.writeInLog(success, true);
+	}
+	
+	/**
+	 * Draw the board with the queens placed in their position according to the solution to the problem.
+	 * 
+	 * @param buffer	The buffer where the board is drawn.
+	 * @param board	    A matrix that represents the board.
+	 */
+	static void drawBoard(StringBuilder buffer, int[][] board)
+	{
+		char[] chars = buildBoard(board.length);
+		patchQueens(chars, 0, board);
+		buffer.append(chars);
+	}
+	
+	/**
+	 * Copy the text that goes before a board to the characters of the solution, making room for 
+	 * the board.
+	 * 
+	 * @param text			A solution or a message about the problem.
+	 * @param extra			The number of characters that go after the text.
+	 * @return				The position after the text.
+	 */
+	private int prepareText(String text, int extra)
+	{
+		int length = NEW_LINE.length() * 3 + text.length() + extra;
+		if(chars.length < length){
+			chars = new char[length];
+		}
+		
+		int position = append(NEW_LINE, 0);
+		position = append(text, position);
+		position = append(NEW_LINE, position);
+		
+		return append(NEW_LINE, position);
+	}
+	
+	/**
+	 * Write the characters of the solution to the file.
+	 * 
+	 * @param length		The number of characters to write.
+	 */
+	private void writeChars(int length)
+	{
+		try{
+			out.write(chars, 0, length);
+		}
+		catch(IOException e){
+			String outputProblem = "Error: There was a problem generating the output file: " + file;
+			outputManager.writeInLog(outputProblem, true);
+			System.exit(-1);
+		}
+	}
+	
+	/**
+	 * Copy a String to the characters of the solution to write.
+	 * 
+	 * @param text			The text to copy.
+	 * @param position		The position where the text is copied.
+	 * @return				The position after the text.
+	 */
+	private int append(String text, int position)
+	{
+		text.getChars(0, text.length(), chars, position);
+		
+		return position + text.length();
+	}
+	
+	/**
+	 * Prepare the empty board for a board size, if it is not the size of the current one.
+	 * 
+	 * @param n		The size of the board.
+	 */
+	private void prepareBoard(int n)
+	{
+		if(template == null || boardSize != n){
+			template = buildBoard(n);
+			boardSize = n;
+		}
+	}
+	
+	/**
+	 * Place the queens of a solution on an empty board. Each queen replaces the central character of 
+	 * its cell.
+	 * 
+	 * @param chars			The characters of the empty board.
+	 * @param offset		The position where the board starts.
+	 * @param board			A matrix that represents the board.
+	 */
+	private static void patchQueens(char[] chars, int offset, int[][] board)
+	{
+		int n = board.length;
+		int dottedLength = 6 * n + 5;		//The horizontal line plus the margin.
+		int rowLength = dottedLength + 5 + 6 * n + 2 * NEW_LINE.length();	//A horizontal line and a row.
+		for(int i = n; i > 0; i--){
+			int rowStart = offset + (n - i) * rowLength + dottedLength + NEW_LINE.length() + 5;
+			for(int j = 0; j < n; j++){
+				if(board[i-1][j] == 1){
+					chars[rowStart + 6 * j + 2] = 'R';
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Place the queens of a solution on an empty board from the row of the queen in each column.
+	 * 
+	 * @param chars			The characters of the empty board.
+	 * @param offset		The position where the board starts.
+	 * @param s				A vector of integers is the solution to the problem.
+	 */
+	private static void patchQueens(char[] chars, int offset, int[] s)
+	{
+		int n = s.length;
+		int dottedLength = 6 * n + 5;		//The horizontal line plus the margin.
+		int rowLength = dottedLength + 5 + 6 * n + 2 * NEW_LINE.length();	//A horizontal line and a row.
+		for(int j = 0; j < n; j++){
+			int rowStart = offset + (n - s[j]) * rowLength + dottedLength + NEW_LINE.length() + 5;
+			chars[rowStart + 6 * j + 2] = 'R';
+		}
+	}
+	
+	/**
+	 * Build an empty board from the two rows of the chessboard, the horizontal line and the line of 
+	 * letters. Every row label takes five characters.
+	 * 
+	 * @param n		The size of the board.
+	 * @return		The characters of the empty board.
+	 */
+	private static char[] buildBoard(int n)
+	{
+		String dottedLine = dottedLine(n);
+		String evenRow = row(n, 0);
+		String oddRow = row(n, 1);
+		StringBuilder buffer = new StringBuilder();
+		
+		for(int i = n; i > 0; i--){
+			buffer.append(dottedLine);
+			buffer.append(NEW_LINE);
+			buffer.append(i);
+			if(i < 10){
+				buffer.append("   |");
+			}
+			else{
+				buffer.append("  |");
+			}
+			if(i % 2 == 0){	//It is an even row
+				buffer.append(evenRow);
+			}
+			else{
+				buffer.append(oddRow);
+			}
+			buffer.append(NEW_LINE);
+		}
+		//The last horizontal line and the line of letters.
+		buffer.append(dottedLine);
+		buffer.append(NEW_LINE);
+		buffer.append(lettersLine(n));
+		
+		char[] chars = new char[buffer.length()];
+		buffer.getChars(0, chars.length, chars, 0);
+		
+		return chars;
+	}
+	
+	/**
+	 * Returns the cells of an empty row. The cells of the columns with the same parity as the row 
+	 * are marked.
+	 * 
+	 * @param n			The size of the board.
+	 * @param parity	0 for an even row, 1 for an odd row.
+	 * @return			The cells of the row.
+	 */
+	private static String row(int n, int parity)
+	{
+		StringBuilder buffer = new StringBuilder();
+		for(int j = 0; j < n; j++){
+			if(j % 2 == parity){
+				buffer.append("  *  |");
+			}
+			else{
+				buffer.append("     |");
+			}
+		}
+		
+		return buffer.toString();
+	}
+	
+	/**
+	 * Returns the horizontal line of the board.
+	 * 
+	 * @param n		The size of the board.
+	 * @return		The horizontal line.
+	 */
+	private static String dottedLine(int n)
+	{
+		StringBuilder buffer = new StringBuilder("    ");
+		for(int k = 0; k < 6 * n + 1; k++){
+			buffer.append('-');
+		}
+		
+		return buffer.toString();
+	}
+	
+	/**
+	 * Returns the line of letters that represents the columns on the board.
+	 * 
+	 * @param n		The size of the board.
+	 * @return		The line of letters.
+	 */
+	private static String lettersLine(int n)
+	{
+		StringBuilder buffer = new StringBuilder("  ");
+		for(int i = 0; i < n; i++){
+			buffer.append("     ");
+			buffer.append((char)('a' + i));
+		}
+		buffer.append(NEW_LINE);
+		
+		return buffer.toString();
+	}
+}
@@ -0,0 +1,167 @@
+/**
+ * Solver engine that follows the same search as BitmaskEngine without recursion. The state of every
+ * column is kept in an explicit stack of bit masks, and the column being explored is kept in local 
+ * variables, so the stack is only used when going to the next column or back to the previous one. 
+ * Bit i of each mask represents row i + 1 of the board.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class IterativeEngine implements SolverEngine
+{
+	/**
+	 * Default constructor for IterativeEngine.
+	 */
+	public IterativeEngine()
+	{
+	}
+	
+	/**
+	 * Find all solutions to the problem and pass them to a listener. The free rows are visited
+	 * from the lowest to the highest, which keeps the order of the solutions.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	public void queens(int[] s, int n, boolean isTrace, SolutionListener listener)
+	{
+		if(n > BitmaskEngine.MAX_N){
+			throw new IllegalArgumentException("The board size cannot be greater than " + BitmaskEngine.MAX_N + ".");
+		}
+		if(n <= 0){
+			return;
+		}
+		
+		int mask = (1 << n) - 1;
+		int last = n - 1;
+		int[] rowsStack = new int[n];		//The rows occupied before each column.
+		int[] ldStack = new int[n];			//The rows attacked in each column by the ascending diagonals.
+		int[] rdStack = new int[n];			//The rows attacked in each column by the descending diagonals.
+		int[] freeStack = new int[n];		//The rows of each column that are still to be tried.
+		//The state of the current column is kept out of the stack.
+		int k = 0;
+		int rows = 0;
+		int ld = 0;
+		int rd = 0;
+		int free = mask;
+		
+		while(true){
+			if(k == last){
+				if(isTrace && n > 1){
+					//Every row of the last column is tried so that the trace can show it.
+					for(int i = 0; i < n; i++){
+						s[k] = i + 1;
+						if((free & (1 << i)) != 0){
+							listener.accept(s);
+						}
+						listener.reject(s);
+					}
+				}
+				else if(free != 0){
+					//At most one row can be free in the last column.
+					s[k] = Integer.numberOfTrailingZeros(free) + 1;
+					listener.accept(s);
+				}
+				free = 0;
+			}
+			if(free != 0){
+				int bit = free & -free;		//The lowest free row.
+				free ^= bit;
+				s[k] = Integer.numberOfTrailingZeros(bit) + 1;
+				int nextRows = rows | bit;
+				int nextLd = (ld | bit) << 1;
+				int nextRd = (rd | bit) >>> 1;
+				int nextFree = ~(nextRows | nextLd | nextRd) & mask;
+				//Without the trace, a column with no free row is not visited.
+				if(nextFree != 0 || isTrace){
+					rowsStack[k] = rows;
+					ldStack[k] = ld;
+					rdStack[k] = rd;
+					freeStack[k] = free;
+					k++;
+					rows = nextRows;
+					ld = nextLd;
+					rd = nextRd;
+					free = nextFree;
+				}
+			}
+			else if(k == 0){		//All the rows of the first column have been tried.
+				return;
+			}
+			else{		//Go back to the previous column.
+				k--;
+				rows = rowsStack[k];
+				ld = ldStack[k];
+				rd = rdStack[k];
+				free = freeStack[k];
+			}
+		}
+	}
+	
+	/**
+	 * Count the solutions to the problem without building them.
+	 * 
+	 * @param n		A positive integer that is the size of the board.
+	 * @return		The number of solutions.
+	 */
+	public long count(int n)
+	{
+		if(n > BitmaskEngine.MAX_N){
+			throw new IllegalArgumentException("The board size cannot be greater than " + BitmaskEngine.MAX_N + ".");
+		}
+		if(n <= 0){
+			return 0;
+		}
+		
+		int mask = (1 << n) - 1;
+		int[] rowsStack = new int[n];
+		int[] ldStack = new int[n];
+		int[] rdStack = new int[n];
+		int[] freeStack = new int[n];
+		long total = 0;
+		int k = 0;
+		int rows = 0;
+		int ld = 0;
+		int rd = 0;
+		int free = mask;
+		
+		while(true){
+			if(free != 0){
+				int bit = free & -free;
+				free ^= bit;
+				int nextRows = rows | bit;
+				if(nextRows == mask){		//All the queens are placed.
+					total++;
+				}
+				else{
+					int nextLd = (ld | bit) << 1;
+					int nextRd = (rd | bit) >>> 1;
+					int nextFree = ~(nextRows | nextLd | nextRd) & mask;
+					if(nextFree != 0){
+						rowsStack[k] = rows;
+						ldStack[k] = ld;
+						rdStack[k] = rd;
+						freeStack[k] = free;
+						k++;
+						rows = nextRows;
+						ld = nextLd;
+						rd = nextRd;
+						free = nextFree;
+					}
+				}
+			}
+			else if(k == 0){
+				return total;
+			}
+			else{
+				k--;
+				rows = rowsStack[k];
+				ld = ldStack[k];
+				rd = rdStack[k];
+				free = freeStack[k];
+			}
+		}
+	}
+}
@@ -0,0 +1,61 @@
+import java.util.ArrayList;
+
+/**
+ * It represents a list in memory as a destination of the solutions. It is meant for programs that 
+ * use ProblemManager and need all the solutions at once.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class ListSink implements SolutionSink
+{
+	private ArrayList<String> list;		//Save the lines written.
+	
+	/**
+	 * Constructor for ListSink in which the list that receives the lines is passed as a parameter.
+	 * 
+	 * @param list	The list that receives the lines.
+	 */
+	public ListSink(ArrayList<String> list)
+	{
+		this.list = list;
+	}
+	
+	/**
+	 * Returns the list with the lines written.
+	 * 
+	 * @return	The list with the lines written.
+	 */
+	public ArrayList<String> getList()
+	{
+		return list;
+	}
+	
+	/**
+	 * Add a line to the list.
+	 * 
+	 * @param line	The line to write.
+	 */
+	public void write(String line)
+	{
+		list.add(line);
+	}
+	
+	/**
+	 * Add a line stored in an array of characters to the list.
+	 * 
+	 * @param line		An array with the line to write.
+	 * @param length	The number of characters of the line.
+	 */
+	public void write(char[] line, int length)
+	{
+		list.add(new String(line, 0, length));
+	}
+	
+	/**
+	 * The list stays available after closing.
+	 */
+	public void close()
+	{
+	}
+}
@@ -1,17 +1,42 @@
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * It represents a log where the application events are stored.
+ * It represents a log where the application events are stored. The events are passed to a background 
+ * thread that keeps the log file open and writes them in batches. All the Loggers of the same file share 
+ * that thread, and the pending events are written when the application ends, after the actions that 
+ * must still write in the log.
  * 
  * @author  Roberto Castillejo Embid.
  * @version 1.0.
  */
 public class Logger 
 {
+	private static final HashMap<String, LogChannel> channels = new HashMap<String, LogChannel>();	//Save the open logs.
+	private static final ArrayList<Runnable> closeActions = new ArrayList<Runnable>();	//Save the actions to run first.
+	private static long lastSecond = -1;		//Save the second of the last date generated.
+	private static String lastDate = null;		//Save the last date generated.
+	
 	private File file;		//The file where the events are saved.
 	
+	static{
+		//A single hook runs the actions and then closes the logs, so the events of the actions are written.
+		Runtime.getRuntime().addShutdownHook(new Thread("Log closer"){
+			public void run()
+			{
+				closeAll();
+			}
+		});
+	}
+	
 	/**
 	 * Default constructor for Logger.
 	 */
@@ -51,60 +76,243 @@ public class Logger
 	}
 	
 	/**
-	 * Save the events generated by the application with the day, date and time they occur.
+	 * Save the events generated by the application with the day, date and time they occur. The event 
+	 * is written in the background.
 	 * 
 	 * @param text		A file name.
 	 */
 	public void writeInLog(String text)
 	{
-		FileWriter out = null;
-		PrintWriter pw = null;
-		try{
-			out = new FileWriter(file, true);
-			pw = new PrintWriter(out);
-			String date = insertDate(); //Save the event date.
-						
-			if(file.length() == 0){		//It's time to create the log
-				pw.println("                                    APPLICATION LOG " + "\"" + "QUEENS" + "\"");
-				pw.println();
-				pw.println("                      ==============================================================");
-				pw.println("                      * Author:      Roberto Castillejo Embid.                     *");
-				pw.println("                      * Version:     1.0.                                          *");
-				pw.println("                      ==============================================================");
-				pw.println();
-			}
-			
-			pw.print(date + "     ");
-			pw.println(text);
+		String date = insertDate(); //Save the event date.
+		getChannel(file).add(date + "     " + text);
+	}
+	
+	/**
+	 * Add an action to run when the application ends, before the logs are closed, so that the events it 
+	 * writes are not lost. The actions are run in the order they are added.
+	 * 
+	 * @param action	The action.
+	 */
+	public static void runBeforeClose(Runnable action)
+	{
+		synchronized(closeActions){
+			closeActions.add(action);
 		}
-		catch(Exception e){
-			System.out.println("Error: There was a problem with the log file: Queens_Log.log");
+	}
+	
+	/**
+	 * Run the actions added to be run before closing and close every log, writing its pending events.
+	 */
+	private static void closeAll()
+	{
+		ArrayList<Runnable> actions;
+		synchronized(closeActions){
+			actions = new ArrayList<Runnable>(closeActions);
 		}
-		finally{
-			try{
-			//Ensure the file is closed.
-				if(out != null){
-					out.close();
-				}
-			}
-			catch(Exception e){
-				System.out.println("Error: There was a problem with the log file: Queens_Log.log");
-			}
+		for(int i = 0; i < actions.size(); i++){
+			actions.get(i).run();
+		}
+		ArrayList<LogChannel> open;
+		synchronized(channels){
+			open = new ArrayList<LogChannel>(channels.values());
+		}
+		for(int i = 0; i < open.size(); i++){
+			open.get(i).close();
 		}
 	}
 	
-	
 	/**
 	 * Returns the current date in the specified format. An example 
-	 * of the format would be: "Mon Dec 12 2016 22:17:43"
+	 * of the format would be: "Mon Dec 12 2016 22:17:43". The date is 
+	 * only generated again when the second changes.
 	 * 
 	 * @return		The current date in a specific format.
 	 */
-	private String insertDate()
+	private static synchronized String insertDate()
+	{
+		long second = System.currentTimeMillis() / 1000;
+		if(second != lastSecond){
+			Date date = new Date();
+			lastDate = date.insertDate();
+			lastSecond = second;
+		}
+		
+		return lastDate;
+	}
+	
+	/**
+	 * Returns the log of a file, opening it if it is the first event for that file.
+	 * 
+	 * @param file		The file of the log.
+	 * @return			The log of the file.
+	 */
+	private static LogChannel getChannel(File file)
+	{
+		String key = file.getAbsolutePath();
+		synchronized(channels){
+			LogChannel channel = channels.get(key);
+			if(channel == null){
+				channel = new LogChannel(file);
+				channels.put(key, channel);
+			}
+			
+			return channel;
+		}
+	}
+	
+	/**
+	 * It represents an open log file and the thread that writes its events.
+	 */
+	private static class LogChannel extends Thread
 	{
-		Date date = new Date();
-		String currentDate = date.insertDate();
+		private static final int CAPACITY = 64 * 1024;		//Maximum number of events waiting to be written.
+		private static final long WAIT_TIME = 100;			//Milliseconds to wait for room in the queue or for an event.
+		
+		private File file;							//Save the file of the log.
+		private BlockingQueue<String> queue;		//Save the events waiting to be written.
+		private volatile boolean isClosed;			//Save whether the log has been closed.
+		private volatile boolean isFailed;			//Save whether the log file cannot be written.
+		private AtomicLong dropped;					//Save the number of events that could not be written.
+		
+		/**
+		 * Constructor for LogChannel. The thread starts at once.
+		 * 
+		 * @param file		The file of the log.
+		 */
+		LogChannel(File file)
+		{
+			super("Log writer");
+			this.file = file;
+			queue = new LinkedBlockingQueue<String>(CAPACITY);
+			isClosed = false;
+			isFailed = false;
+			dropped = new AtomicLong(0);
+			setDaemon(true);
+			start();
+		}
 		
-		return currentDate;	
+		/**
+		 * Add an event to the queue of events waiting to be written. If the queue is full, it waits a 
+		 * moment for the writer; the event is dropped and counted if there is still no room, or if the 
+		 * log has been closed or cannot be written.
+		 * 
+		 * @param line		The event with its date.
+		 */
+		void add(String line)
+		{
+			boolean isAdded = false;
+			if(!isClosed && !isFailed){
+				try{
+					isAdded = queue.offer(line, WAIT_TIME, TimeUnit.MILLISECONDS);
+				}
+				catch(InterruptedException e){
+					Thread.currentThread().interrupt();
+				}
+			}
+			if(!isAdded){
+				dropped.incrementAndGet();
+			}
+		}
+		
+		/**
+		 * Write the pending events and close the file. The number of events that could not be written, 
+		 * if any, is reported through standard output.
+		 */
+		void close()
+		{
+			isClosed = true;
+			try{
+				join(5000);
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+			//An event added while the log was closing is not written.
+			dropped.addAndGet(queue.size());
+			if(dropped.get() > 0){
+				System.out.println("Warning: " + dropped.get() + " events could not be written to the log file: " + 
+						file.getName());
+			}
+		}
+		
+		/**
+		 * Write the events in batches until the log is closed and there are no events left.
+		 */
+		public void run()
+		{
+			BufferedWriter out = null;
+			ArrayList<String> batch = new ArrayList<String>();
+			
+			try{
+				boolean isNew = file.length() == 0;
+				out = new BufferedWriter(new FileWriter(file, true));
+				if(isNew){		//It's time to create the log
+					writeHeader(out);
+				}
+				while(true){
+					//The flag is read before waiting, so the events added before closing are written.
+					boolean isEnd = isClosed;
+					String line = queue.poll(WAIT_TIME, TimeUnit.MILLISECONDS);
+					if(line == null){
+						if(isEnd){
+							break;
+						}
+					}
+					else{
+						batch.add(line);
+						queue.drainTo(batch);
+						for(int i = 0; i < batch.size(); i++){
+							out.write(batch.get(i));
+							out.newLine();
+						}
+						batch.clear();
+						out.flush();
+					}
+				}
+			}
+			catch(IOException e){
+				//The events waiting and the following ones are dropped instead of kept in memory.
+				isFailed = true;
+				dropped.addAndGet(batch.size() + queue.size());
+				queue.clear();
+				System.out.println("Error: There was a problem with the log file: Queens_Log.log");
+			}
+			catch(InterruptedException e){
+				Thread.currentThread().interrupt();
+			}
+			finally{
+				try{
+				//Ensure the file is closed.
+					if(out != null){
+						out.close();
+					}
+				}
+				catch(IOException e){
+					System.out.println("Error: There was a problem with the log file: Queens_Log.log");
+				}
+			}
+		}
+		
+		/**
+		 * Write the header of a new log.
+		 * 
+		 * @param out				The log file.
+		 * @throws IOException		If the header cannot be written.
+		 */
+		private void writeHeader(BufferedWriter out) throws IOException
+		{
+			out.write("                                    APPLICATION LOG " + "\"" + "QUEENS" + "\"");
+			out.newLine();
+			out.newLine();
+			out.write("                      ==============================================================");
+			out.newLine();
+			out.write("                      * Author:      Roberto Castillejo Embid.                     *");
+			out.newLine();
+			out.write("                      * Version:     1.0.                                          *");
+			out.newLine();
+			out.write("                      ==============================================================");
+			out.newLine();
+			out.newLine();
+		}
 	}
 }
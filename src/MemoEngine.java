@@ -0,0 +1,125 @@
+/**
+ * Solver engine that counts the solutions like BitmaskEngine but keeps the number of solutions of the
+ * states already explored in a transposition table. Different orders of the same queens can leave the
+ * same rows occupied and attack the same free rows in the next columns, and then the count of the first
+ * one is reused. These states are rare, so only the ones with at most a third of the queens placed are
+ * kept: the deeper ones cost less to count again than to look up, and they are counted by BitmaskEngine,
+ * which also finds the solutions. Even so, few states repeat, so the engine measures how often they do
+ * and is not faster than BitmaskEngine.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class MemoEngine implements SolverEngine
+{
+	private BitmaskEngine engine;		//Save the engine that finds the solutions.
+	private TranspositionTable table;	//Save the counts of the states already explored.
+	private int mask;					//Save the mask with the n rows of the board.
+	private int limit;					//Save the number of queens placed above which the states are not kept.
+	
+	/**
+	 * Constructor for MemoEngine in which the memory budget of the table is passed as a parameter.
+	 * 
+	 * @param budget	The memory budget of the table in bytes.
+	 */
+	public MemoEngine(long budget)
+	{
+		engine = new BitmaskEngine();
+		table = new TranspositionTable(budget);
+		mask = 0;
+		limit = 0;
+	}
+	
+	/**
+	 * Returns the transposition table, whose counters describe the last count.
+	 * 
+	 * @return	The transposition table.
+	 */
+	public TranspositionTable getTable()
+	{
+		return table;
+	}
+	
+	/**
+	 * Find all solutions to the problem and pass them to a listener.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	public void queens(int[] s, int n, boolean isTrace, SolutionListener listener)
+	{
+		engine.queens(s, n, isTrace, listener);
+	}
+	
+	/**
+	 * Count the solutions to the problem with an empty table.
+	 * 
+	 * @param n		A positive integer that is the size of the board.
+	 * @return		The number of solutions.
+	 */
+	public long count(int n)
+	{
+		if(n > BitmaskEngine.MAX_N){
+			throw new IllegalArgumentException("The board size cannot be greater than " + BitmaskEngine.MAX_N + ".");
+		}
+		if(n <= 0){
+			return 0;
+		}
+		
+		table.clear();
+		mask = (1 << n) - 1;
+		limit = n / 3;
+		
+		return countCompletions(0, 0, 0);
+	}
+	
+	/**
+	 * Count the solutions that extend the queens already placed, looking for the state in the table
+	 * first. The diagonals that only reach occupied rows in the columns left do not change the count, 
+	 * so they are removed from the key.
+	 * 
+	 * @param rows		The rows already occupied.
+	 * @param ld		The rows attacked in the next column by the ascending diagonals.
+	 * @param rd		The rows attacked in the next column by the descending diagonals.
+	 * @return			The number of solutions.
+	 */
+	private long countCompletions(int rows, int ld, int rd)
+	{
+		if(Integer.bitCount(rows) > limit){
+			return engine.count(Integer.bitCount(mask), rows, ld, rd);
+		}
+		
+		int empty = ~rows & mask;
+		int reachLd = empty;
+		int reachRd = empty;
+		for(int t = Integer.bitCount(empty) - 1; t > 0; t--){
+			reachLd |= empty >>> t;
+			reachRd |= empty << t;
+		}
+		int keyLd = ld & reachLd;
+		int keyRd = rd & reachRd & mask;
+		//The empty board is only reached once.
+		boolean isKept = rows != 0;
+		if(isKept){
+			long count = table.get(rows, keyLd, keyRd);
+			if(count >= 0){
+				return count;
+			}
+		}
+		
+		long total = 0;
+		int free = ~(rows | ld | rd) & mask;
+		while(free != 0){
+			int bit = free & -free;
+			free ^= bit;
+			total += countCompletions(rows | bit, (ld | bit) << 1, (rd | bit) >>> 1);
+		}
+		if(isKept){
+			table.put(rows, keyLd, keyRd, total);
+		}
+		
+		return total;
+	}
+}
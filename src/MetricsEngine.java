@@ -0,0 +1,209 @@
+/**
+ * Solver engine that follows the search of BitmaskEngine while counting the positions visited, the
+ * positions rejected in every column and the time until the first solution. The measures are saved in
+ * a SolverMetrics when the search ends. It is only used when the measures are requested, so the other
+ * engines do not pay for the counters.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class MetricsEngine implements SolverEngine
+{
+	private SolverMetrics metrics;		//Save the measures of the last search.
+	private long nodes;					//Save the positions visited in the current search.
+	private long[] rejections;			//Save the positions rejected in every column in the current search.
+	private long solutions;				//Save the solutions found in the current search.
+	private long start;					//Save when the current search started, in nanoseconds.
+	private long firstSolutionTime;		//Save the nanoseconds until the first solution, -1 if there is none.
+	
+	/**
+	 * Constructor for MetricsEngine in which the object that receives the measures is passed as a parameter.
+	 * 
+	 * @param metrics	The object that receives the measures.
+	 */
+	public MetricsEngine(SolverMetrics metrics)
+	{
+		this.metrics = metrics;
+		rejections = new long[0];
+	}
+	
+	/**
+	 * Returns the object that receives the measures.
+	 * 
+	 * @return	The object that receives the measures.
+	 */
+	public SolverMetrics getMetrics()
+	{
+		return metrics;
+	}
+	
+	/**
+	 * Change the object that receives the measures to another one passed as a parameter.
+	 * 
+	 * @param metrics	The object that receives the measures.
+	 */
+	public void setMetrics(SolverMetrics metrics)
+	{
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * Find all solutions to the problem, pass them to a listener and save the measures of the search.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	public void queens(int[] s, int n, boolean isTrace, SolutionListener listener)
+	{
+		if(n > BitmaskEngine.MAX_N){
+			throw new IllegalArgumentException("The board size cannot be greater than " + BitmaskEngine.MAX_N + ".");
+		}
+		begin(n);
+		try{
+			if(n > 0){
+				queens(s, n, 0, (1 << n) - 1, 0, 0, 0, isTrace, listener);
+			}
+		}
+		finally{
+			//The listener can stop the search, and the part done is measured as well.
+			end(n);
+		}
+	}
+	
+	/**
+	 * Count the solutions to the problem without building them and save the measures of the search.
+	 * 
+	 * @param n		A positive integer that is the size of the board.
+	 * @return		The number of solutions.
+	 */
+	public long count(int n)
+	{
+		if(n > BitmaskEngine.MAX_N){
+			throw new IllegalArgumentException("The board size cannot be greater than " + BitmaskEngine.MAX_N + ".");
+		}
+		begin(n);
+		if(n > 0){
+			countCompletions((1 << n) - 1, 0, 0, 0, 0);
+		}
+		end(n);
+		
+		return solutions;
+	}
+	
+	/**
+	 * Reset the counters before a search.
+	 * 
+	 * @param n		The size of the board.
+	 */
+	private void begin(int n)
+	{
+		nodes = 0;
+		rejections = new long[Math.max(n, 0)];
+		solutions = 0;
+		firstSolutionTime = -1;
+		start = System.nanoTime();
+	}
+	
+	/**
+	 * Save the measures of the search that has just ended.
+	 * 
+	 * @param n		The size of the board.
+	 */
+	private void end(int n)
+	{
+		long totalTime = System.nanoTime() - start;
+		metrics.record(n, nodes, rejections, solutions, firstSolutionTime, totalTime);
+	}
+	
+	/**
+	 * Count a solution found, saving the time of the first one.
+	 */
+	private void found()
+	{
+		if(solutions == 0){
+			firstSolutionTime = System.nanoTime() - start;
+		}
+		solutions++;
+	}
+	
+	/**
+	 * Place the queen k and all the following ones, as BitmaskEngine does, counting the positions
+	 * visited and rejected.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param k			A positive integer that is the queen to be placed.
+	 * @param mask		A mask with the n rows of the board.
+	 * @param rows		The rows already occupied.
+	 * @param ld		The rows attacked in column k by the ascending diagonals.
+	 * @param rd		The rows attacked in column k by the descending diagonals.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	private void queens(int[] s, int n, int k, int mask, int rows, int ld, int rd, boolean isTrace,
+			SolutionListener listener)
+	{
+		int free = ~(rows | ld | rd) & mask;
+		rejections[k] += n - Integer.bitCount(free);
+		
+		if(k == n - 1){
+			if(isTrace && n > 1){
+				//Every row of the last column is tried so that the trace can show it.
+				for(int i = 0; i < n; i++){
+					s[k] = i + 1;
+					if((free & (1 << i)) != 0){
+						nodes++;
+						found();
+						listener.accept(s);
+					}
+					listener.reject(s);
+				}
+			}
+			else if(free != 0){
+				//At most one row can be free in the last column.
+				s[k] = Integer.numberOfTrailingZeros(free) + 1;
+				nodes++;
+				found();
+				listener.accept(s);
+			}
+		}
+		else{
+			while(free != 0){
+				int bit = free & -free;		//The lowest free row.
+				free ^= bit;
+				s[k] = Integer.numberOfTrailingZeros(bit) + 1;
+				nodes++;
+				queens(s, n, k + 1, mask, rows | bit, (ld | bit) << 1, (rd | bit) >>> 1, isTrace, listener);
+			}
+		}
+	}
+	
+	/**
+	 * Count the solutions that extend the queens already placed, counting the positions visited
+	 * and rejected.
+	 * 
+	 * @param mask		A mask with the n rows of the board.
+	 * @param k			The column of the next queen.
+	 * @param rows		The rows already occupied.
+	 * @param ld		The rows attacked in the next column by the ascending diagonals.
+	 * @param rd		The rows attacked in the next column by the descending diagonals.
+	 */
+	private void countCompletions(int mask, int k, int rows, int ld, int rd)
+	{
+		if(rows == mask){
+			found();
+			return;
+		}
+		
+		int free = ~(rows | ld | rd) & mask;
+		rejections[k] += rejections.length - Integer.bitCount(free);
+		while(free != 0){
+			int bit = free & -free;
+			free ^= bit;
+			nodes++;
+			countCompletions(mask, k + 1, rows | bit, (ld | bit) << 1, (rd | bit) >>> 1);
+		}
+	}
+}
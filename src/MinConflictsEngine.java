@@ -0,0 +1,334 @@
+import java.util.Arrays;
+
+/**
+ * Local search that finds a single solution with the min-conflicts heuristic instead of backtracking,
+ * so it can be used with boards of millions of queens. It is not a SolverEngine, since it can neither
+ * list nor count all the solutions. The queens are kept in different rows, as a
+ * permutation of the rows, and the number of queens on every diagonal is kept in two arrays of counters,
+ * so the conflicts of a queen and the effect of exchanging the rows of two queens are known in constant
+ * time. The search has two phases:
+ * 
+ * 1. Every column takes, among the rows not used yet, a random one without conflicts if one is found in
+ *    a few attempts. Only a few queens at the end of the board are left in conflict.
+ * 2. While there are queens in conflict, the row of one of them is exchanged with the row of a random
+ *    queen when the exchange reduces the number of conflicts.
+ * 
+ * If the second phase does not end after a number of exchanges proportional to n, the search starts again
+ * from a new random placement. The solution is not the first one of the list and there is no trace.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class MinConflictsEngine
+{
+	private static final int PLACEMENT_ATTEMPTS = 64;		//Random rows tried for every column in the first phase.
+	private static final int STEPS_PER_QUEEN = 16;			//Exchanges allowed per queen before starting again.
+	
+	private long seed;				//Save the state of the generator of random numbers, never 0.
+	private int[] rows;				//Save the row of every column, from 0 to n - 1.
+	private int[] ascending;		//Save the number of queens on every ascending diagonal, column + row.
+	private int[] descending;		//Save the number of queens on every descending diagonal, column - row + n - 1.
+	private int[] conflicted;		//Save the columns that may have a queen in conflict.
+	private int conflictedSize;		//Save the number of columns in the previous array.
+	private int[] pending;			//Save the columns to review in the next turn of the second phase.
+	private long collisions;		//Save the number of conflicts, a queen more than one on each diagonal.
+	private long iterations;		//Save the number of exchanges tried in the last search.
+	private int restarts;			//Save the number of times the last search started again.
+	
+	/**
+	 * Default constructor for MinConflictsEngine.
+	 */
+	public MinConflictsEngine()
+	{
+		this(System.nanoTime());
+	}
+	
+	/**
+	 * Constructor for MinConflictsEngine in which the seed of the random numbers is passed as a parameter,
+	 * so that the same solution is found every time.
+	 * 
+	 * @param seed	The seed of the random numbers.
+	 */
+	public MinConflictsEngine(long seed)
+	{
+		this.seed = (seed == 0) ? 1 : seed;
+		rows = new int[0];
+		ascending = new int[0];
+		descending = new int[0];
+		conflicted = new int[0];
+		conflictedSize = 0;
+		pending = new int[0];
+		collisions = 0;
+		iterations = 0;
+		restarts = 0;
+	}
+	
+	/**
+	 * Returns the number of exchanges tried in the last search.
+	 * 
+	 * @return	The number of exchanges tried.
+	 */
+	public long getIterations()
+	{
+		return iterations;
+	}
+	
+	/**
+	 * Returns the number of times the last search started again from a new placement.
+	 * 
+	 * @return	The number of restarts.
+	 */
+	public int getRestarts()
+	{
+		return restarts;
+	}
+	
+	/**
+	 * Returns a line that summarizes the last search, to be written in the log.
+	 * 
+	 * @return	The summary of the last search.
+	 */
+	public String getSummary()
+	{
+		return "Local search for n = " + rows.length + ": " + iterations + " iterations and " + restarts +
+				" restarts.";
+	}
+	
+	/**
+	 * Find one solution to the problem. Nothing is written in the vector if the problem has no solution 
+	 * (n = 2 and n = 3).
+	 * 
+	 * @param s		A vector of integers where the solution is written.
+	 * @param n		A positive integer that is the size of the board.
+	 * @return		True if a solution has been found, false if the problem has no solution.
+	 */
+	public boolean solve(int[] s, int n)
+	{
+		if(!search(Math.max(n, 0))){
+			return false;
+		}
+		for(int i = 0; i < n; i++){
+			s[i] = rows[i] + 1;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Find one solution to the problem and leave it in the rows of this engine.
+	 * 
+	 * @param n		The size of the board.
+	 * @return		True if a solution has been found, false if the problem has no solution.
+	 */
+	private boolean search(int n)
+	{
+		iterations = 0;
+		restarts = 0;
+		if(rows.length != n){
+			rows = new int[n];
+			ascending = new int[Math.max(2 * n - 1, 0)];
+			descending = new int[Math.max(2 * n - 1, 0)];
+			conflicted = new int[n];
+			pending = new int[n];
+		}
+		if(n == 2 || n == 3){
+			return false;
+		}
+		
+		place(n);
+		while(!repair(n)){
+			restarts++;
+			place(n);
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * First phase: place the queens in a random permutation of the rows, looking for a row without
+	 * conflicts for every column, and keep the columns left in conflict.
+	 * 
+	 * @param n		The size of the board.
+	 */
+	private void place(int n)
+	{
+		for(int i = 0; i < n; i++){
+			rows[i] = i;
+		}
+		Arrays.fill(ascending, 0);
+		Arrays.fill(descending, 0);
+		collisions = 0;
+		conflictedSize = 0;
+		
+		for(int i = 0; i < n; i++){
+			//The rows of columns i to n - 1 are the ones not used yet.
+			for(int attempt = 0; attempt < PLACEMENT_ATTEMPTS; attempt++){
+				swap(i, i + nextInt(n - i));
+				if(ascending[i + rows[i]] == 0 && descending[i - rows[i] + n - 1] == 0){
+					break;
+				}
+			}
+			add(i, n);
+		}
+		for(int i = 0; i < n; i++){
+			if(isConflicted(i, n)){
+				conflicted[conflictedSize++] = i;
+			}
+		}
+	}
+	
+	/**
+	 * Second phase: exchange the rows of the queens in conflict with the rows of random queens while it
+	 * reduces the conflicts.
+	 * 
+	 * @param n		The size of the board.
+	 * @return		True if there are no conflicts left, false if the number of exchanges allowed is reached.
+	 */
+	private boolean repair(int n)
+	{
+		long maxSteps = (long) STEPS_PER_QUEEN * n + 1000;
+		long steps = 0;
+		
+		while(collisions > 0){
+			//The columns are reviewed in turns, keeping the ones that may be in conflict for the next one.
+			int pendingSize = 0;
+			for(int c = 0; c < conflictedSize && collisions > 0; c++){
+				int i = conflicted[c];
+				if(isConflicted(i, n)){
+					int j = nextInt(n);
+					steps++;
+					iterations++;
+					//The queen moved to column j may have new conflicts.
+					if(j != i && exchange(i, j, n) && pendingSize < n){
+						pending[pendingSize++] = j;
+					}
+					if(pendingSize < n){
+						pending[pendingSize++] = i;
+					}
+				}
+			}
+			if(steps > maxSteps){
+				return false;
+			}
+			int[] aux = conflicted;
+			conflicted = pending;
+			pending = aux;
+			conflictedSize = pendingSize;
+			if(conflictedSize == 0 && collisions > 0){
+				//Columns were dropped because the array was full, so all of them are reviewed again.
+				for(int i = 0; i < n; i++){
+					if(isConflicted(i, n)){
+						conflicted[conflictedSize++] = i;
+					}
+				}
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Exchange the rows of two queens if it reduces the number of conflicts.
+	 * 
+	 * @param i		The column of the first queen.
+	 * @param j		The column of the second queen.
+	 * @param n		The size of the board.
+	 * @return		True if the rows have been exchanged, false otherwise.
+	 */
+	private boolean exchange(int i, int j, int n)
+	{
+		long before = collisions;
+		remove(i, n);
+		remove(j, n);
+		swap(i, j);
+		add(i, n);
+		add(j, n);
+		if(collisions < before){
+			return true;
+		}
+		
+		//The exchange does not help, so it is undone.
+		remove(i, n);
+		remove(j, n);
+		swap(i, j);
+		add(i, n);
+		add(j, n);
+		
+		return false;
+	}
+	
+	/**
+	 * Returns whether the queen of a column shares a diagonal with another queen.
+	 * 
+	 * @param i		The column of the queen.
+	 * @param n		The size of the board.
+	 * @return		True if the queen is in conflict, false otherwise.
+	 */
+	private boolean isConflicted(int i, int n)
+	{
+		return ascending[i + rows[i]] > 1 || descending[i - rows[i] + n - 1] > 1;
+	}
+	
+	/**
+	 * Add the queen of a column to the counters of its diagonals.
+	 * 
+	 * @param i		The column of the queen.
+	 * @param n		The size of the board.
+	 */
+	private void add(int i, int n)
+	{
+		if(ascending[i + rows[i]]++ > 0){
+			collisions++;
+		}
+		if(descending[i - rows[i] + n - 1]++ > 0){
+			collisions++;
+		}
+	}
+	
+	/**
+	 * Remove the queen of a column from the counters of its diagonals.
+	 * 
+	 * @param i		The column of the queen.
+	 * @param n		The size of the board.
+	 */
+	private void remove(int i, int n)
+	{
+		if(--ascending[i + rows[i]] > 0){
+			collisions--;
+		}
+		if(--descending[i - rows[i] + n - 1] > 0){
+			collisions--;
+		}
+	}
+	
+	/**
+	 * Returns a random number with the xorshift generator, which is much faster than java.util.Random 
+	 * for the millions of numbers of a large board.
+	 * 
+	 * @param bound		The upper bound, greater than 0.
+	 * @return			A number from 0 to bound - 1.
+	 */
+	private int nextInt(int bound)
+	{
+		long x = seed;
+		x ^= x << 13;
+		x ^= x >>> 7;
+		x ^= x << 17;
+		seed = x;
+		
+		return (int) (((x >>> 32) * bound) >>> 32);
+	}
+	
+	/**
+	 * Exchange the rows of two columns.
+	 * 
+	 * @param i		The first column.
+	 * @param j		The second column.
+	 */
+	private void swap(int i, int j)
+	{
+		int aux = rows[i];
+		rows[i] = rows[j];
+		rows[j] = aux;
+	}
+}
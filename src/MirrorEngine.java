@@ -0,0 +1,114 @@
+/**
+ * Solver engine that uses the horizontal mirror of the board. Every solution whose first queen is in 
+ * row r has a mirror whose first queen is in row n + 1 - r, so only the first half of the rows of 
+ * column a is explored and the solutions of the other half are obtained by reflecting them.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class MirrorEngine implements SolverEngine
+{
+	private BitmaskEngine engine;		//Save the engine that explores the board.
+	
+	/**
+	 * Default constructor for MirrorEngine.
+	 */
+	public MirrorEngine()
+	{
+		engine = new BitmaskEngine();
+	}
+	
+	/**
+	 * Find all solutions to the problem and pass them to a listener. The trace needs every position 
+	 * tried, so it is generated without using the mirror.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	public void queens(int[] s, int n, boolean isTrace, final SolutionListener listener)
+	{
+		if(isTrace || n < 2){
+			engine.queens(s, n, isTrace, listener);
+		}
+		else{
+			int half = n / 2;
+			SolutionBuffer[] buffers = new SolutionBuffer[half];
+			
+			//First half of the rows: the solutions are passed on as they are found, so a listener that 
+			//stops the search does not wait for the whole row, and kept for the mirror.
+			for(int i = 0; i < half; i++){
+				final SolutionBuffer buffer = new SolutionBuffer(n);
+				buffers[i] = buffer;
+				s[0] = i + 1;
+				engine.queens(s, n, 1, 1 << i, 1 << i << 1, 1 << i >>> 1, false, new SolutionListener(){
+					public void accept(int[] solution)
+					{
+						buffer.accept(solution);
+						listener.accept(solution);
+					}
+					
+					public void reject(int[] solution)
+					{
+					}
+				});
+			}
+			
+			//Middle row when n is odd: its mirror begins in the same row, so it is explored.
+			if(n % 2 != 0){
+				s[0] = half + 1;
+				engine.queens(s, n, 1, 1 << half, 1 << half << 1, 1 << half >>> 1, false, listener);
+			}
+			
+			//Second half of the rows: the mirror reverses the order, so each buffer is read backwards.
+			for(int i = half - 1; i >= 0; i--){
+				for(int j = buffers[i].size() - 1; j >= 0; j--){
+					buffers[i].get(j, s);
+					mirror(s, n);
+					listener.accept(s);
+				}
+				buffers[i] = null;
+			}
+		}
+	}
+	
+	/**
+	 * Count the solutions to the problem. The solutions of the first half of the rows of column a 
+	 * are counted twice.
+	 * 
+	 * @param n		A positive integer that is the size of the board.
+	 * @return		The number of solutions.
+	 */
+	public long count(int n)
+	{
+		if(n < 2){
+			return engine.count(n);
+		}
+		
+		int half = n / 2;
+		long total = 0;
+		for(int i = 0; i < half; i++){
+			total += engine.count(n, 1 << i, 1 << i << 1, 1 << i >>> 1);
+		}
+		total *= 2;
+		if(n % 2 != 0){
+			total += engine.count(n, 1 << half, 1 << half << 1, 1 << half >>> 1);
+		}
+		
+		return total;
+	}
+	
+	/**
+	 * Reflect a solution over the horizontal axis of the board.
+	 * 
+	 * @param s		A vector of integers is the solution to the problem.
+	 * @param n		A positive integer that is the size of the board.
+	 */
+	private void mirror(int[] s, int n)
+	{
+		for(int i = 0; i < n; i++){
+			s[i] = n + 1 - s[i];
+		}
+	}
+}
@@ -1,5 +1,6 @@
 import java.io.File;
 import java.io.FileWriter;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 
@@ -206,102 +207,110 @@ public class OutputManager extends IOManager
 	}
 	
 	/**
-	 * Check if a graphical output file exists and if so, return an error message and update the application's .log file.
+	 * Opens an output file where the solutions to the problem are written as they are found. If the file 
+	 * does not have the .txt extension, the error is reported and no file is opened. If the file already 
+	 * exists, the error is reported and the application ends.
 	 * 
-	 * @param fileName		The name of the graphic file.
+	 * @param file		The name of the output file.
+	 * @return			The open output file, or null if it does not have the .txt extension.
 	 */
-	public void checkGraphicExistence(String fileName)
+	public SolutionSink openSolutionFile(String file)
 	{
-		File file = new File(fileName);
-		if(file.exists()){
-			String fileExists = "Error: The graphic file " + "\"" + fileName + "\"" + " already exists.";
-			writeInLog(fileExists, true);
+		if(!file.contains(".txt")){
+			if(!isInformed){
+				String noTxt = "Error: The output file must be a text file with the .txt extension";
+				writeInLog(noTxt, true);
+				isInformed = true;
+			}
+			return null;
+		}
+		isTxtFile = true;
+		if(new File(file).exists()){
+			String existFile = "Error: The file " + "\"" + file + "\"" + " already exists.";
+			writeInLog(existFile, true);
 			System.exit(-1);
 		}
+		
+		return new FileSink(file, this);
 	}
 	
 	/**
-	 * Draw the board with the queens placed in their position according to the solution to the problem.
+	 * Opens a graphic output file where the solutions to the problem are drawn as they are found. If the 
+	 * file does not have the .txt extension, the error is reported and no file is opened.
 	 * 
-	 * @param pw		A PrintWriter object.
-	 * @param board	    A matrix that represents the board.
+	 * @param file		The name of the graphic file.
+	 * @return			The open graphic file, or null if it does not have the .txt extension.
 	 */
-	private void drawBoard(PrintWriter pw, int[][] board)
+	public GraphicWriter openGraphicFile(String file)
 	{
-		//Draw the chessboard with the queens in place.
-		for(int i = board.length; i > 0; i--){
-			drawDottedLine(pw, board);
-			pw.println();
-			pw.print(i);
-			if(i < 10){
-				pw.printf("%4s", "  |");
-			}
-			else{
-				pw.printf("%3s", "  |");
-			}
-			for(int j = 0; j < board.length; j++){
-				if(board[i-1][j] == 1){
-					pw.print("  R  |");
-				}
-				else{
-					if(i % 2 == 0){	//It is an even row
-						if(j % 2 == 0){ //It is an even column
-							pw.print("  *  |");
-						}
-						else{
-							pw.print("     |");
-						}
-					}
-					else{
-						if(j % 2 == 0){  //It is an even column
-							pw.print("     |");
-						}
-						else{
-							pw.print("  *  |");
-						}
-					}
-				}
+		if(!file.contains(".txt")){
+			if(!isInformed){
+				String noTxt = "Error: The output file must be a text file with the .txt extension";
+				writeInLog(noTxt, true);
+				isInformed = true;
 			}
-			pw.println();
+			return null;
 		}
-		//Draw the last horizontal line and the line of letters.
-		drawDottedLine(pw, board);
-		pw.println();
-		drawLettersLine(pw, board);
+		isTxtFile = true;
 		
+		return new GraphicWriter(file, this);
 	}
 	
 	/**
-	 * Draw the horizontal lines of the board.
+	 * Opens a binary file where the solutions to the problem are written as they are found. If the file 
+	 * already exists or cannot be created, the error is reported and the application ends.
 	 * 
-	 * @param pw		A PrintWriter object.
-	 * @param board	A matrix that represents the board.
+	 * @param file			The name of the binary file.
+	 * @param n				The size of the board.
+	 * @param symmetry		BinarySolutionWriter.ALL_SOLUTIONS or BinarySolutionWriter.FUNDAMENTAL_SOLUTIONS.
+	 * @return				The open binary file.
+	 */
+	public BinarySolutionWriter openBinaryFile(String file, int n, int symmetry)
+	{
+		if(new File(file).exists()){
+			String existFile = "Error: The file " + "\"" + file + "\"" + " already exists.";
+			writeInLog(existFile, true);
+			System.exit(-1);
+		}
+		
+		BinarySolutionWriter writer = null;
+		try{
+			writer = new BinarySolutionWriter(file, n, symmetry);
+		}
+		catch(IOException e){
+			String outputProblem = "Error: There was a problem generating the output file: " + file;
+			writeInLog(outputProblem, true);
+			System.exit(-1);
+		}
+		
+		return writer;
+	}
+	
+	/**
+	 * Check if a graphical output file exists and if so, return an error message and update the application's .log file.
+	 * 
+	 * @param fileName		The name of the graphic file.
 	 */
-	private void drawDottedLine(PrintWriter pw, int[][] board)
+	public void checkGraphicExistence(String fileName)
 	{
-		pw.printf("%4s", " ");
-		for(int k = 0; k < 6 * board.length + 1; k++){
-			pw.print("-");
+		File file = new File(fileName);
+		if(file.exists()){
+			String fileExists = "Error: The graphic file " + "\"" + fileName + "\"" + " already exists.";
+			writeInLog(fileExists, true);
+			System.exit(-1);
 		}
 	}
 	
 	/**
-	 * Draw the line of letters that represents the columns on the board.
+	 * Draw the board with the queens placed in their position according to the solution to the problem.
 	 * 
 	 * @param pw		A PrintWriter object.
 	 * @param board	    A matrix that represents the board.
 	 */
-	private void drawLettersLine(PrintWriter pw, int[][] board)
+	private void drawBoard(PrintWriter pw, int[][] board)
 	{
-		Character letter = 'a';				 //It corresponds to the first column of the board.
-		int reference = letter.charValue(); //Save the letter value.
-				
-		pw.printf("%2s", " ");
-		for(int i = 0; i < board.length; i++){
-			pw.printf("%6c", letter);
-			reference++;
-			letter = new Character((char) reference);
-		}
-		pw.println();
+		StringBuilder buffer = new StringBuilder();
+		GraphicWriter.drawBoard(buffer, board);
+		pw.print(buffer);
 	}
 }
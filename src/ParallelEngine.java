@@ -0,0 +1,226 @@
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Solver engine that splits the search by the positions of the first two queens and explores 
+ * every part in a ForkJoinPool. The solutions of each part are kept apart and passed to the 
+ * listener in the order of the parts, so the order of the solutions does not change.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class ParallelEngine implements SolverEngine
+{
+	private static final int SPLIT_DEPTH = 2;	//Number of queens placed before splitting the search.
+	
+	private ForkJoinPool pool;				//Save the threads that explore the board.
+	private BitmaskEngine engine;			//Save the engine that explores each part.
+	
+	/**
+	 * Constructor for ParallelEngine in which the number of threads is passed as a parameter.
+	 * 
+	 * @param threads	The number of threads that explore the board.
+	 */
+	public ParallelEngine(int threads)
+	{
+		pool = new ForkJoinPool(threads);
+		engine = new BitmaskEngine();
+	}
+	
+	/**
+	 * Returns the number of threads that explore the board.
+	 * 
+	 * @return	The number of threads that explore the board.
+	 */
+	public int getThreads()
+	{
+		return pool.getParallelism();
+	}
+	
+	/**
+	 * Find all solutions to the problem and pass them to a listener. The trace needs the positions 
+	 * in the order they are tried, so it is generated without splitting the search.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	public void queens(int[] s, int n, boolean isTrace, SolutionListener listener)
+	{
+		if(isTrace || n <= SPLIT_DEPTH + 1){
+			engine.queens(s, n, isTrace, listener);
+		}
+		else{
+			ArrayList<PrefixTask> tasks = new ArrayList<PrefixTask>();
+			int mask = (1 << n) - 1;
+			
+			//One task for every valid position of the first two queens.
+			for(int i = 0; i < n; i++){
+				int bit = 1 << i;
+				int free = ~(bit | bit << 1 | bit >>> 1) & mask;
+				while(free != 0){
+					int next = free & -free;
+					free ^= next;
+					int[] prefix = {i + 1, Integer.numberOfTrailingZeros(next) + 1};
+					PrefixTask task = new PrefixTask(engine, n, prefix, bit | next, (bit << 2 | next << 1), 
+							(bit >>> 2 | next >>> 1));
+					pool.execute(task);
+					tasks.add(task);
+				}
+			}
+			
+			//Merge the solutions in the order of the prefixes. If the listener stops the search, the 
+			//parts not started yet are cancelled, but the ones already running explore their whole part, 
+			//so the number of solutions cannot be limited with this engine.
+			int merged = 0;
+			try{
+				for(; merged < tasks.size(); merged++){
+					SolutionBuffer buffer = tasks.get(merged).join();
+					tasks.set(merged, null);
+					for(int j = 0; j < buffer.size(); j++){
+						buffer.get(j, s);
+						listener.accept(s);
+					}
+				}
+			}
+			finally{
+				for(int i = merged; i < tasks.size(); i++){
+					if(tasks.get(i) != null){
+						tasks.get(i).cancel(false);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Count the solutions to the problem, splitting the search by the position of the first queen.
+	 * 
+	 * @param n		A positive integer that is the size of the board.
+	 * @return		The number of solutions.
+	 */
+	public long count(int n)
+	{
+		if(n <= SPLIT_DEPTH + 1){
+			return engine.count(n);
+		}
+		
+		return pool.invoke(new CountTask(engine, n, 0, 0, 0, 0));
+	}
+	
+	/**
+	 * It represents the search of all the solutions that begin with a given prefix.
+	 */
+	private static class PrefixTask extends RecursiveTask<SolutionBuffer>
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private BitmaskEngine engine;	//Save the engine that explores the board.
+		private int n;					//Save the board size.
+		private int[] prefix;			//Save the rows of the first queens.
+		private int rows;				//Save the rows already occupied.
+		private int ld;					//Save the rows attacked by the ascending diagonals.
+		private int rd;					//Save the rows attacked by the descending diagonals.
+		
+		/**
+		 * Constructor for PrefixTask.
+		 * 
+		 * @param engine	The engine that explores the board.
+		 * @param n			The size of the board.
+		 * @param prefix	The rows of the first queens.
+		 * @param rows		The rows already occupied.
+		 * @param ld		The rows attacked in the next column by the ascending diagonals.
+		 * @param rd		The rows attacked in the next column by the descending diagonals.
+		 */
+		PrefixTask(BitmaskEngine engine, int n, int[] prefix, int rows, int ld, int rd)
+		{
+			this.engine = engine;
+			this.n = n;
+			this.prefix = prefix;
+			this.rows = rows;
+			this.ld = ld;
+			this.rd = rd;
+		}
+		
+		/**
+		 * Find the solutions that begin with the prefix.
+		 * 
+		 * @return	The solutions found, in order.
+		 */
+		protected SolutionBuffer compute()
+		{
+			SolutionBuffer buffer = new SolutionBuffer(n);
+			int[] s = new int[n];
+			System.arraycopy(prefix, 0, s, 0, prefix.length);
+			engine.queens(s, n, prefix.length, rows, ld, rd, false, buffer);
+			
+			return buffer;
+		}
+	}
+	
+	/**
+	 * It represents the count of the solutions that extend a partial solution. The task is divided 
+	 * by the free rows until the split depth is reached.
+	 */
+	private static class CountTask extends RecursiveTask<Long>
+	{
+		private static final long serialVersionUID = 1L;
+		
+		private BitmaskEngine engine;	//Save the engine that explores the board.
+		private int n;					//Save the board size.
+		private int k;					//Save the queen to be placed.
+		private int rows;				//Save the rows already occupied.
+		private int ld;					//Save the rows attacked by the ascending diagonals.
+		private int rd;					//Save the rows attacked by the descending diagonals.
+		
+		/**
+		 * Constructor for CountTask.
+		 * 
+		 * @param engine	The engine that explores the board.
+		 * @param n			The size of the board.
+		 * @param k			The queen to be placed.
+		 * @param rows		The rows already occupied.
+		 * @param ld		The rows attacked in column k by the ascending diagonals.
+		 * @param rd		The rows attacked in column k by the descending diagonals.
+		 */
+		CountTask(BitmaskEngine engine, int n, int k, int rows, int ld, int rd)
+		{
+			this.engine = engine;
+			this.n = n;
+			this.k = k;
+			this.rows = rows;
+			this.ld = ld;
+			this.rd = rd;
+		}
+		
+		/**
+		 * Count the solutions.
+		 * 
+		 * @return	The number of solutions.
+		 */
+		protected Long compute()
+		{
+			if(k == SPLIT_DEPTH){
+				return engine.count(n, rows, ld, rd);
+			}
+			
+			ArrayList<CountTask> tasks = new ArrayList<CountTask>();
+			int free = ~(rows | ld | rd) & ((1 << n) - 1);
+			while(free != 0){
+				int bit = free & -free;
+				free ^= bit;
+				tasks.add(new CountTask(engine, n, k + 1, rows | bit, (ld | bit) << 1, (rd | bit) >>> 1));
+			}
+			invokeAll(tasks);
+			
+			long total = 0;
+			for(int i = 0; i < tasks.size(); i++){
+				total += tasks.get(i).join();
+			}
+			
+			return total;
+		}
+	}
+}
@@ -0,0 +1,204 @@
+/**
+ * It represents the conditions that the solutions must meet: queens fixed in some columns and squares
+ * that must stay empty. The squares are written in algebraic notation, as in the list of solutions
+ * ("a1", "c5"), and the solutions that meet the conditions are found by BitmaskEngine, which removes the
+ * squares attacked by the fixed queens from every column before the search.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class PartialPlacement
+{
+	private int n;				//Save the size of the board.
+	private int[] fixed;		//Save the row of the queen fixed in every column, 0 if the column is free.
+	private int[] empty;		//Save the rows of every column that must stay empty, bit i for row i + 1.
+	
+	/**
+	 * Constructor for PartialPlacement in which the size of the board is passed as a parameter. There are
+	 * no conditions until they are added.
+	 * 
+	 * @param n		The size of the board.
+	 */
+	public PartialPlacement(int n)
+	{
+		if(n < 1 || n > BitmaskEngine.MAX_N){
+			throw new IllegalArgumentException("The board size must be between 1 and " + BitmaskEngine.MAX_N + ".");
+		}
+		this.n = n;
+		fixed = new int[n];
+		empty = new int[n];
+	}
+	
+	/**
+	 * Returns the size of the board.
+	 * 
+	 * @return	The size of the board.
+	 */
+	public int getN()
+	{
+		return n;
+	}
+	
+	/**
+	 * Returns the row of the queen fixed in a column.
+	 * 
+	 * @param column	The column, 0 for column a.
+	 * @return			The row of the queen, 0 if the column is free.
+	 */
+	public int getFixed(int column)
+	{
+		return fixed[column];
+	}
+	
+	/**
+	 * Returns whether a square must stay empty.
+	 * 
+	 * @param column	The column, 0 for column a.
+	 * @param row		The row, from 1 to n.
+	 * @return			True if the square must stay empty, false otherwise.
+	 */
+	public boolean isEmpty(int column, int row)
+	{
+		return (empty[column] & (1 << (row - 1))) != 0;
+	}
+	
+	/**
+	 * Fix a queen in a square. A column can only have one fixed queen.
+	 * 
+	 * @param column	The column, 0 for column a.
+	 * @param row		The row, from 1 to n.
+	 */
+	public void fix(int column, int row)
+	{
+		checkSquare(column, row);
+		if(fixed[column] != 0 && fixed[column] != row){
+			throw new IllegalArgumentException("Column " + SolutionFormatter.columnName(column) +
+					" already has a fixed queen.");
+		}
+		fixed[column] = row;
+	}
+	
+	/**
+	 * Mark a square as one that must stay empty.
+	 * 
+	 * @param column	The column, 0 for column a.
+	 * @param row		The row, from 1 to n.
+	 */
+	public void keepEmpty(int column, int row)
+	{
+		checkSquare(column, row);
+		empty[column] |= 1 << (row - 1);
+	}
+	
+	/**
+	 * Fix queens in a list of squares separated by commas ("a1,c5").
+	 * 
+	 * @param squares	The squares in algebraic notation.
+	 */
+	public void fix(String squares)
+	{
+		String[] list = squares.split(",");
+		for(int i = 0; i < list.length; i++){
+			int[] square = parseSquare(list[i].trim());
+			fix(square[0], square[1]);
+		}
+	}
+	
+	/**
+	 * Mark a list of squares separated by commas ("b3,d4") as squares that must stay empty.
+	 * 
+	 * @param squares	The squares in algebraic notation.
+	 */
+	public void keepEmpty(String squares)
+	{
+		String[] list = squares.split(",");
+		for(int i = 0; i < list.length; i++){
+			int[] square = parseSquare(list[i].trim());
+			keepEmpty(square[0], square[1]);
+		}
+	}
+	
+	/**
+	 * Returns the rows where a queen can be placed in every column: the row of the fixed queen in the
+	 * fixed columns and, in the others, the rows that are not empty and are not attacked by any fixed
+	 * queen. If two fixed queens attack each other or one is on an empty square, no row is allowed.
+	 * 
+	 * @return	The rows allowed in every column, bit i for row i + 1, the first one for column a.
+	 */
+	public int[] getAllowedRows()
+	{
+		int mask = (1 << n) - 1;
+		int[] allowed = new int[n];
+		for(int k = 0; k < n; k++){
+			allowed[k] = mask & ~empty[k];
+		}
+		
+		for(int c = 0; c < n; c++){
+			if(fixed[c] != 0){
+				int row = fixed[c] - 1;
+				for(int k = 0; k < n; k++){
+					if(k == c){
+						allowed[k] &= 1 << row;
+					}
+					else{
+						//The row of the queen and the squares of both diagonals in column k.
+						int distance = Math.abs(k - c);
+						int attacked = 1 << row;
+						if(row + distance < n){
+							attacked |= 1 << (row + distance);
+						}
+						if(row - distance >= 0){
+							attacked |= 1 << (row - distance);
+						}
+						allowed[k] &= ~attacked;
+					}
+				}
+			}
+		}
+		
+		//A fixed queen without its row has been attacked, so there is no solution.
+		for(int c = 0; c < n; c++){
+			if(fixed[c] != 0 && allowed[c] == 0){
+				return new int[n];
+			}
+		}
+		
+		return allowed;
+	}
+	
+	/**
+	 * Returns the column and the row of a square in algebraic notation, such as "c5" or "ab12".
+	 * 
+	 * @param square	The square.
+	 * @return			The column, 0 for column a, and the row, from 1 to n.
+	 */
+	private int[] parseSquare(String square)
+	{
+		int letters = 0;
+		int column = 0;
+		while(letters < square.length() && square.charAt(letters) >= 'a' && square.charAt(letters) <= 'z'){
+			column = column * 26 + (square.charAt(letters) - 'a' + 1);
+			letters++;
+		}
+		if(letters == 0 || letters == square.length() || letters > 2){
+			throw new IllegalArgumentException("The square " + square + " is not valid.");
+		}
+		int row = Integer.parseInt(square.substring(letters));
+		checkSquare(column - 1, row);
+		
+		return new int[] {column - 1, row};
+	}
+	
+	/**
+	 * Check that a square is on the board.
+	 * 
+	 * @param column	The column, 0 for column a.
+	 * @param row		The row, from 1 to n.
+	 */
+	private void checkSquare(int column, int row)
+	{
+		if(column < 0 || column >= n || row < 1 || row > n){
+			throw new IllegalArgumentException("The square is not on the board.");
+		}
+	}
+}
@@ -1,4 +1,10 @@
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Class that represents a manager for the eight queens problem generalized to n queens 
@@ -9,16 +15,42 @@ import java.util.ArrayList;
  */
 public class ProblemManager 
 {
+	public static final int MAX_DETAILED_N = 13;			//Largest board size for the trace and the graphical output.
+	public static final int MAX_OUTPUT_N = 14;				//Largest board size for the list of solutions.
+	public static final int MAX_BINARY_N = 16;				//Largest board size for the binary file of solutions.
+	public static final int MAX_COUNT_N = BitmaskEngine.MAX_N;	//Largest board size for counting the solutions.
+	
+	private static final char[] NUMBER_SEPARATOR = ": ".toCharArray();
+	private static final char[] ACCEPTED = "Position accepted: |============================================> ".toCharArray();
+	private static final char[] REJECTED = "Rejected position: ".toCharArray();
+	private static final char[] SOLUTION = "Solution: ".toCharArray();
+	private static final String NEW_LINE = System.lineSeparator();	//The line separator of the table of a range.
+	
 	private int[] solution;				    //Save the solution to the queen problem.
 	private ArrayList<String> output;	    //Save the solution to the problem in console or file output format.
+	private SolutionSink sink;				//Save the destination of the solutions, null for the console or the file.
+	private long count;						//Save the number of solutions found.
+	private long total;						//Save the total number of solutions, including the symmetric ones.
+	private long limit;						//Save the number of solutions after which the search stops, 0 for all.
+	private PartialPlacement placement;		//Save the conditions that the solutions must meet, null if there are none.
+	private SolutionCache cache;			//Save the results of previous executions, null if not used.
+	private BinarySolutionWriter cacheWriter;	//Save the file where the solutions are kept for the cache.
+	private SolutionFormatter formatter;	//Save the writer of the solutions in algebraic notation.
 	private int[][] graphicOutput;		    //Save the solution to the problem in a graphical output format.
+	private int[] graphicSolution;			//Save the last solution drawn, null if there is none.
+	private GraphicWriter graphicWriter;	//Save the graphic file being written, null if there is none.
 	private int n;						    //Save the board size and the number of queens.
 	private String fileName;		        //Save the output file name.
 	private boolean isTrace;			    //It records whether or not it is a trace output.
-	private ArrayList<String> trace;	    //Save the application trace.
+	private ArrayList<String> trace;	    //Save a copy of the application trace, null if it is only written to file.
+	private TraceWriter traceWriter;		//Save the trace file being written.
+	private int traceSampling;				//Save how many trace events there are for every event written.
+	private long traceMaxSize;				//Save the maximum size of a trace file, 0 if there is no limit.
 	private boolean isGraphic;			    //Save whether the output is graphical or not.
 	private OutputManager outputManager;	//Save an output manager.
 	private InputManager inputManager;		//Save an input manager.
+	private SolverEngine engine;			//Save the algorithm that solves the problem.
+	private MinConflictsEngine localSearch;	//Save the local search that finds a single solution, null if not used.
 			
 	/**
 	 * Default constructor for ProblemManager.
@@ -28,13 +60,28 @@ public class ProblemManager
 		n = 0;
 		solution = null;
 		output = null;
+		sink = null;
+		count = 0;
+		total = 0;
+		limit = 0;
+		placement = null;
+		cache = null;
+		cacheWriter = null;
+		formatter = null;
 		graphicOutput = null;
+		graphicSolution = null;
+		graphicWriter = null;
 		fileName = null;
 		isTrace = false;
 		trace = null;
+		traceWriter = null;
+		traceSampling = 1;
+		traceMaxSize = 0;
 		isGraphic = false;
-		outputManager = null;
+		outputManager = new OutputManager();
 		inputManager = new InputManager();
+		engine = new BitmaskEngine();
+		localSearch = null;
 	}
 	
 	/**
@@ -48,27 +95,52 @@ public class ProblemManager
 	 * @param isGraphic			True if it is the graphical output of the problem.
 	 */
 	public ProblemManager(int n, String fileName, boolean isTrace, boolean isGraphic)
+	{
+		this(n, fileName, isTrace, isGraphic, new BitmaskEngine());
+	}
+	
+	/**
+	 * Constructor for ProblemManager in which the number of queens and the size of the
+	 * board are passed as parameters, an output file name, whether it is the printout 
+	 * of the trace, whether it is a graphic output file and the engine that solves the problem.
+	 * 
+	 * @param n 				The size of the board and the number of queens.
+	 * @param fileName		    The name of the output file.
+	 * @param isTrace			True if it is the trace, false otherwise.
+	 * @param isGraphic			True if it is the graphical output of the problem.
+	 * @param engine			The algorithm that solves the problem.
+	 */
+	public ProblemManager(int n, String fileName, boolean isTrace, boolean isGraphic, SolverEngine engine)
 	{
 		outputManager = new OutputManager();
 		inputManager = new InputManager();
+		this.engine = engine;
+		localSearch = null;
+		sink = null;
+		count = 0;
+		total = 0;
+		limit = 0;
+		placement = null;
+		cache = null;
+		cacheWriter = null;
+		formatter = null;
 		
 		try{
 			this.n = n;
-			checkLimit(n);		//Check if the dimensions of the board and number of queens exceed n = 13.
+			//Check if the dimensions of the board and number of queens exceed the limit for the trace and 
+			//the graphical output. The other modes check their limit when they are run.
+			if(isTrace || isGraphic){
+				checkLimit(n, MAX_DETAILED_N);
+			}
 			this.fileName = fileName;
 			solution = new int[n];
 			this.isTrace = isTrace;
-			if(isTrace){
-				trace = new ArrayList<String>();
-			}
-			else{
-				trace = null;
-			}
+			trace = null;
+			traceWriter = null;
+			traceSampling = 1;
+			traceMaxSize = 0;
 			this.isGraphic = isGraphic;
-			if(isGraphic){
-				executeGraphicOutput();
-			}
-			else{
+			if(!isGraphic){
 				output = new ArrayList<String>();
 			}
 		}
@@ -95,7 +167,8 @@ public class ProblemManager
 	/**
 	 * Returns an ArrayList<String> containing all solutions for a given n. These solutions are 
 	 * stored as Strings in the array. Each position in the ArrayList<String> represents a solution; 
-	 * therefore, its length is the number of solutions.
+	 * therefore, its length is the number of solutions. The solutions are written as they are found, 
+	 * so the list is only filled if they are sent to a ListSink built over it with setSink().
 	 * 
 	 * @return	An ArrayList<String> with all the solutions for a given n.
 	 */
@@ -106,15 +179,44 @@ public class ProblemManager
 	
 	/**
 	 * Returns an array containing a solution to the problem. This array represents a chessboard and 
-	 * contains the positions of the queens on it.
+	 * contains the positions of the queens on it. It is built from the last solution drawn the first 
+	 * time it is requested.
 	 * 
 	 * @return	A matrix with a solution to the problem.
 	 */
 	public int[][] getGraphicOutput()
 	{
+		if(graphicOutput == null && graphicSolution != null){
+			graphicOutput = new int[graphicSolution.length][graphicSolution.length];
+			for(int i = 0; i < graphicSolution.length; i++){
+				int aux = graphicSolution[i];
+				graphicOutput[aux - 1][i] = 1;
+			}
+		}
+		
 		return graphicOutput;
 	}
 	
+	/**
+	 * Returns the last solution drawn in the graphic output file.
+	 * 
+	 * @return	The last solution drawn, or null if there is none.
+	 */
+	public int[] getGraphicSolution()
+	{
+		return graphicSolution;
+	}
+	
+	/**
+	 * Returns the graphic file being written.
+	 * 
+	 * @return	The graphic file being written, or null if there is none.
+	 */
+	public GraphicWriter getGraphicWriter()
+	{
+		return graphicWriter;
+	}
+	
 	/**
 	 * Returns the size of the board, which is equal to the number of queens.
 	 * 
@@ -147,7 +249,8 @@ public class ProblemManager
 	
 	/**
 	 * Returns an ArrayList<String> containing the positions accepted and rejected by the problem. 
-	 * Each index in the list represents a set of positions that may or may not be valid.
+	 * Each index in the list represents a set of positions that may or may not be valid. The trace 
+	 * is written to file as it happens, so the list is only filled if one is given with setTrace().
 	 * 
 	 * @return	An ArrayList<String> containing the positions accepted and not accepted by the problem.
 	 */
@@ -156,6 +259,26 @@ public class ProblemManager
 		return trace;
 	}
 	
+	/**
+	 * Returns how many trace events there are for every event written to the trace file.
+	 * 
+	 * @return	The number of events for every event written, 1 if all of them are written.
+	 */
+	public int getTraceSampling()
+	{
+		return traceSampling;
+	}
+	
+	/**
+	 * Returns the maximum size in bytes of a trace file. When it is reached, the trace continues in a new file.
+	 * 
+	 * @return	The maximum size of a trace file, 0 if there is no limit.
+	 */
+	public long getTraceMaxSize()
+	{
+		return traceMaxSize;
+	}
+	
 	/**
 	 * Returns whether printing the graphical solution is required or not.
 	 * 
@@ -186,6 +309,78 @@ public class ProblemManager
 		return inputManager;
 	}
 	
+	/**
+	 * Returns the destination of the solutions chosen with setSink(), or null if the solutions are 
+	 * written to the console or to the output file.
+	 * 
+	 * @return	The destination of the solutions.
+	 */
+	public SolutionSink getSink()
+	{
+		return sink;
+	}
+	
+	/**
+	 * Returns the number of solutions found by the last search.
+	 * 
+	 * @return	The number of solutions found.
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+	
+	/**
+	 * Returns the total number of solutions found by the last search, including the ones related by 
+	 * the rotations and reflections of the board when only the fundamental solutions are found.
+	 * 
+	 * @return	The total number of solutions.
+	 */
+	public long getTotal()
+	{
+		return total;
+	}
+	
+	/**
+	 * Returns the number of solutions after which the search stops.
+	 * 
+	 * @return	The number of solutions, 0 if all of them are found.
+	 */
+	public long getLimit()
+	{
+		return limit;
+	}
+	
+	/**
+	 * Returns the conditions that the solutions must meet.
+	 * 
+	 * @return	The fixed queens and the squares that must stay empty, null if there are none.
+	 */
+	public PartialPlacement getPlacement()
+	{
+		return placement;
+	}
+	
+	/**
+	 * Returns the results of previous executions used to avoid solving the problem again.
+	 * 
+	 * @return	The cache of results, or null if it is not used.
+	 */
+	public SolutionCache getCache()
+	{
+		return cache;
+	}
+	
+	/**
+	 * Returns the algorithm that solves the problem.
+	 * 
+	 * @return	The algorithm that solves the problem.
+	 */
+	public SolverEngine getEngine()
+	{
+		return engine;
+	}
+	
 	/**
 	 * Replace one solution with another solution passed as a parameter.
 	 * 
@@ -216,6 +411,27 @@ public class ProblemManager
 		graphicOutput = newGraphicalSol;
 	}
 	
+	/**
+	 * Change the last solution drawn to another one passed as a parameter.
+	 * 
+	 * @param graphicSolution		A solution to the problem, or null.
+	 */
+	public void setGraphicSolution(int[] graphicSolution)
+	{
+		this.graphicSolution = graphicSolution;
+		graphicOutput = null;
+	}
+	
+	/**
+	 * Change the graphic file being written to another one passed as a parameter.
+	 * 
+	 * @param graphicWriter		The graphic file, or null if there is none.
+	 */
+	public void setGraphicWriter(GraphicWriter graphicWriter)
+	{
+		this.graphicWriter = graphicWriter;
+	}
+	
 	/**
 	 * Change the problem size and the number of queens to another value passed as a parameter.
 	 * 
@@ -258,6 +474,26 @@ public class ProblemManager
 		this.trace = trace;
 	}
 	
+	/**
+	 * Change how many trace events there are for every event written to the trace file.
+	 * 
+	 * @param traceSampling		The number of events for every event written, 1 to write all of them.
+	 */
+	public void setTraceSampling(int traceSampling)
+	{
+		this.traceSampling = traceSampling;
+	}
+	
+	/**
+	 * Change the maximum size in bytes of a trace file.
+	 * 
+	 * @param traceMaxSize		The maximum size of a trace file, 0 if there is no limit.
+	 */
+	public void setTraceMaxSize(long traceMaxSize)
+	{
+		this.traceMaxSize = traceMaxSize;
+	}
+	
 	/**
 	 * Change the predicate used to determine if printing the graphic output file 
 	 * is needed. True if needed, false otherwise.
@@ -289,64 +525,460 @@ public class ProblemManager
 		this.inputManager = inputManager;
 	}
 	
+	/**
+	 * Change the destination of the solutions to another one passed as a parameter. If it is null, 
+	 * the solutions are written to the console or to the output file.
+	 * 
+	 * @param sink	The destination of the solutions.
+	 */
+	public void setSink(SolutionSink sink)
+	{
+		this.sink = sink;
+	}
+	
+	/**
+	 * Change the number of solutions after which the search stops to another value passed as a parameter.
+	 * 
+	 * @param limit		The number of solutions, 0 to find all of them.
+	 */
+	public void setLimit(long limit)
+	{
+		this.limit = limit;
+	}
+	
+	/**
+	 * Change the conditions that the solutions must meet to others passed as a parameter. The solutions 
+	 * that meet them are found by BitmaskEngine, whatever the engine, and the cache is not used.
+	 * 
+	 * @param placement		The fixed queens and the squares that must stay empty, null if there are none.
+	 */
+	public void setPlacement(PartialPlacement placement)
+	{
+		this.placement = placement;
+	}
+	
+	/**
+	 * Change the results of previous executions used to avoid solving the problem again.
+	 * 
+	 * @param cache		The cache of results, or null to always solve the problem.
+	 */
+	public void setCache(SolutionCache cache)
+	{
+		this.cache = cache;
+	}
+	
+	/**
+	 * Change the algorithm that solves the problem to another one passed as a parameter.
+	 * 
+	 * @param engine	The algorithm that solves the problem.
+	 */
+	public void setEngine(SolverEngine engine)
+	{
+		this.engine = engine;
+	}
+	
+	/**
+	 * Change the local search to another one passed as a parameter. When there is one, it finds the single 
+	 * solution written instead of the engine, which is still used to count.
+	 * 
+	 * @param localSearch	The local search, or null to search the solutions with the engine.
+	 */
+	public void setLocalSearch(MinConflictsEngine localSearch)
+	{
+		this.localSearch = localSearch;
+	}
+	
 	/**
 	 * Displays the solution to the problem through standard output or generates 
-	 * an output file with the solution.
+	 * an output file with the solution, graphical or not. The solutions are written 
+	 * as they are found.
 	 */
 	public void showOutput()
 	{
-		//Only values ​​greater than 0 are valid for n.
-		if(n == 0){
+		if(isGraphic){
+			executeGraphicOutput();
+		}
+		//Only values greater than 0 are valid for n.
+		else if(n == 0){
 			String zeroErr = "Error: The value for n must be greater than 0.";
 			outputManager.writeInLog(zeroErr, true);
 			printHelp(false);
 		}
 		else{
-			queens(solution, n, 0);
-			
-			if(output.size() == 0){ //The output ArrayList does not contain solutions.
-				String noSolution = "The problem for n = " + n + " has no solution.";
+			//Only a few lines are written when the number of solutions is limited, and a single solution 
+			//built directly or found by the local search has no limit.
+			if(limit == 0 && localSearch == null){
+				checkLimit(n, MAX_OUTPUT_N);
+			}
+			else if(!isConstructive() && localSearch == null){
+				checkLimit(n, MAX_COUNT_N);
+			}
+			SolutionSink destination = sink;
+			if(destination == null){
 				if(fileName == null){
-					System.out.println();
-					System.out.println(noSolution);
-					String output = "The solution is displayed via standard output.";
-					outputManager.writeInLog(output, false);
+					destination = new ConsoleSink();
 				}
 				else{
-					output.add(noSolution);
-					outputManager.writeFile(fileName, output, false, null, null);
-					if(fileName.contains(".txt")){
-						String output = "The solution is shown per file.";
-						outputManager.writeInLog(output, false);
-					}
-					else{
-						printHelp(false);
-					}
+					destination = outputManager.openSolutionFile(fileName);
 				}
 			}
+			
+			if(destination == null){	//The output file does not have the .txt extension.
+				printHelp(false);
+			}
 			else{
-				if(fileName == null){
-					System.out.println();
-					for(int i = 0; i < output.size(); i++){
-						System.out.println(output.get(i));
+				SolutionSink previous = sink;
+				sink = destination;
+				if(!readCachedSolutions()){
+					if(cache != null && !isTrace && limit == 0 && placement == null){
+						cacheWriter = cache.openSolutions(n, cacheMode());
+					}
+					queens(solution, n);
+					if(count == 0){	//No solution has been written.
+						sink.write("The problem for n = " + n + " has no solution" + placementText() + ".");
 					}
+					if(cacheWriter != null){
+						cache.putSolutions(n, cacheMode(), cacheWriter);
+						cacheWriter = null;
+					}
+				}
+				sink.close();
+				sink = previous;
+				
+				if(fileName == null){
 					String output = "The solution is displayed via standard output.";
 					outputManager.writeInLog(output, false);
 				}
 				else{
-					outputManager.writeFile(fileName, output, false, null, null);
-					if(fileName.contains(".txt")){
-						String output = "The solution is shown per file.";
-						outputManager.writeInLog(output, false);	
-					}
-					else{
-						printHelp(false);
-					}
+					String output = "The solution is shown per file.";
+					outputManager.writeInLog(output, false);
 				}
+				showFundamentalCount();
+			}
+		}
+	}
+	
+	/**
+	 * Generates a binary file with the solutions to the problem, in the format described in 
+	 * BinarySolutionWriter. The solutions are written as they are found.
+	 */
+	public void showBinaryOutput()
+	{
+		//Only values greater than 0 are valid for n.
+		if(n == 0){
+			String zeroErr = "Error: The value for n must be greater than 0.";
+			outputManager.writeInLog(zeroErr, true);
+			printHelp(false);
+		}
+		else{
+			checkLimit(n, MAX_BINARY_N);
+			int symmetry = BinarySolutionWriter.ALL_SOLUTIONS;
+			if(engine instanceof FundamentalEngine){
+				symmetry = BinarySolutionWriter.FUNDAMENTAL_SOLUTIONS;
+			}
+			BinarySolutionWriter writer = outputManager.openBinaryFile(fileName, n, symmetry);
+			try{
+				engine.queens(solution, n, false, new LimitedListener(writer));
+			}
+			catch(SearchStopped e){
+				//The limit of solutions has been reached.
 			}
+			try{
+				writer.close();
+			}
+			catch(IOException e){
+				String outputProblem = "Error: There was a problem generating the output file: " + fileName;
+				outputManager.writeInLog(outputProblem, true);
+				System.exit(-1);
+			}
+			count = writer.getCount();
+			total = searchTotal();
+			//It shows the user that the writing process was successful.
+			String success = "Information: File " + "\"" + fileName + "\"" + " successfully generated.";
+			outputManager.writeInLog(success, true);
+			String output = "The solution is shown per binary file.";
+			outputManager.writeInLog(output, false);
+			showFundamentalCount();
 		}
 	}
 	
+	/**
+	 * Generates an output file in text format with the solutions stored in a binary file. The name 
+	 * of the output file is the one of this ProblemManager.
+	 * 
+	 * @param binaryFile	The name of the binary file.
+	 */
+	public void convertBinaryFile(String binaryFile)
+	{
+		BinarySolutionReader reader = null;
+		try{
+			reader = new BinarySolutionReader(binaryFile);
+		}
+		catch(IOException e){
+			String readErr = "Error: The file " + "\"" + binaryFile + "\"" + " is not a valid binary file of solutions.";
+			outputManager.writeInLog(readErr, true);
+			System.exit(-1);
+		}
+		n = reader.getN();
+		count = reader.size();
+		
+		SolutionSink destination = outputManager.openSolutionFile(fileName);
+		if(destination == null){	//The output file does not have the .txt extension.
+			printHelp(false);
+		}
+		else{
+			reader.writeText(destination);
+			destination.close();
+			String output = "The solution is shown per file.";
+			outputManager.writeInLog(output, false);
+		}
+	}
+	
+	/**
+	 * Returns the solutions to the problem one by one, in the order of the list of solutions. The 
+	 * search only advances when the next solution is requested, nothing is written and the engine 
+	 * and the cache are not used.
+	 * 
+	 * @return	An iterator over the solutions, each one with the row of the queen of every column.
+	 */
+	public Iterator<int[]> iterator()
+	{
+		return new SolutionIterator(n);
+	}
+	
+	/**
+	 * Returns the solutions to the problem as a spliterator that can be split to search them in parallel.
+	 * 
+	 * @return	A spliterator over the solutions, each one with the row of the queen of every column.
+	 */
+	public Spliterator<int[]> spliterator()
+	{
+		return new SolutionSpliterator(n);
+	}
+	
+	/**
+	 * Returns the solutions to the problem as a sequential stream, in the order of the list of solutions. 
+	 * It can be made parallel with parallel().
+	 * 
+	 * @return	A stream of solutions, each one with the row of the queen of every column.
+	 */
+	public Stream<int[]> stream()
+	{
+		return StreamSupport.stream(spliterator(), false);
+	}
+	
+	/**
+	 * Count the solutions to the problem without building them.
+	 * 
+	 * @return	The number of solutions to the problem.
+	 */
+	public long countSolutions()
+	{
+		if(placement != null){
+			return new BitmaskEngine().count(placement);
+		}
+		
+		return engine.count(n);
+	}
+	
+	/**
+	 * Displays the number of solutions to the problem through standard output.
+	 */
+	public void showCount()
+	{
+		//Only values greater than 0 are valid for n.
+		if(n == 0){
+			String zeroErr = "Error: The value for n must be greater than 0.";
+			outputManager.writeInLog(zeroErr, true);
+			printHelp(false);
+		}
+		else{
+			checkLimit(n, MAX_COUNT_N);
+			countWithCache();
+			closeEngine();
+			String result = "The problem for n = " + n + " has " + count + " solutions" + placementText() + ".";
+			if(engine instanceof FundamentalEngine){
+				result = "The problem for n = " + n + " has " + count + " fundamental solutions out of " + total + ".";
+			}
+			System.out.println();
+			System.out.println(result);
+			String output = "The number of solutions is displayed via standard output: " + result;
+			outputManager.writeInLog(output, false);
+		}
+	}
+	
+	/**
+	 * Displays a table with the number of solutions and the time spent for every board size of a range. 
+	 * The engine, its threads or workers and the cache are shared by all the sizes, and the table is 
+	 * written once, when all of them have been solved.
+	 * 
+	 * @param from	The first board size, greater than 0.
+	 * @param to	The last board size, greater than or equal to from.
+	 */
+	public void showCountRange(int from, int to)
+	{
+		//Only values greater than 0 are valid for n.
+		if(from == 0){
+			String zeroErr = "Error: The value for n must be greater than 0.";
+			outputManager.writeInLog(zeroErr, true);
+			printHelp(false);
+		}
+		else{
+			checkLimit(to, MAX_COUNT_N);
+			boolean isFundamental = engine instanceof FundamentalEngine;
+			StringBuilder table = new StringBuilder();
+			table.append(String.format(Locale.ROOT, "%4s %22s", "n", isFundamental ? "fundamental" : "solutions"));
+			if(isFundamental){
+				table.append(String.format(Locale.ROOT, " %22s", "total"));
+			}
+			table.append(String.format(Locale.ROOT, " %14s", "time (ms)")).append(NEW_LINE);
+			
+			long start = System.nanoTime();
+			for(int i = from; i <= to; i++){
+				n = i;
+				long sizeStart = System.nanoTime();
+				boolean isCached = countWithCache();
+				double time = (System.nanoTime() - sizeStart) / 1e6;
+				table.append(String.format(Locale.ROOT, "%4d %22d", n, count));
+				if(isFundamental){
+					table.append(String.format(Locale.ROOT, " %22d", total));
+				}
+				table.append(String.format(Locale.ROOT, " %14.3f", time));
+				if(isCached){
+					table.append(" (cache)");
+				}
+				table.append(NEW_LINE);
+			}
+			closeEngine();
+			table.append(String.format(Locale.ROOT, "Total time: %.3f ms.", (System.nanoTime() - start) / 1e6));
+			
+			System.out.println();
+			System.out.println(table);
+			String output = "The number of solutions for n = " + from + " to " + to + 
+					" is displayed via standard output:" + NEW_LINE + table;
+			outputManager.writeInLog(output, false);
+		}
+	}
+	
+	/**
+	 * Count the solutions for the current board size, reading them from the cache if they are kept 
+	 * there and keeping them otherwise. The results are left in count and total.
+	 * 
+	 * @return	True if the results have been read from the cache, false otherwise.
+	 */
+	private boolean countWithCache()
+	{
+		boolean isCacheUsed = cache != null && placement == null;
+		long[] cached = null;
+		if(isCacheUsed){
+			cached = cache.getCount(n, cacheMode());
+		}
+		if(cached != null){
+			count = cached[0];
+			total = cached[1];
+			outputManager.writeInLog("The number of solutions is read from the cache.", false);
+			
+			return true;
+		}
+		count = countSolutions();
+		total = searchTotal();
+		if(engine instanceof MemoEngine){
+			outputManager.writeInLog("n = " + n + ". " + ((MemoEngine) engine).getTable().getSummary(), false);
+		}
+		if(engine instanceof DistributedEngine){
+			outputManager.writeInLog(((DistributedEngine) engine).getSummary(), false);
+		}
+		if(isCacheUsed){
+			cache.putCount(n, cacheMode(), count, total);
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Displays the number of fundamental solutions and the total number of solutions found by the last 
+	 * search, if the engine only finds the fundamental solutions.
+	 */
+	private void showFundamentalCount()
+	{
+		if(engine instanceof FundamentalEngine){
+			String result = "Information: The problem for n = " + n + " has " + count + 
+					" fundamental solutions out of " + total + ".";
+			outputManager.writeInLog(result, true);
+		}
+	}
+	
+	/**
+	 * Release what the engine keeps between counts, that is, the worker processes of DistributedEngine.
+	 */
+	private void closeEngine()
+	{
+		if(engine instanceof DistributedEngine){
+			((DistributedEngine) engine).close();
+		}
+	}
+	
+	/**
+	 * Returns the total number of solutions of the last search of the engine.
+	 * 
+	 * @return	The total number of solutions, including the symmetric ones.
+	 */
+	private long searchTotal()
+	{
+		if(engine instanceof FundamentalEngine){
+			return ((FundamentalEngine) engine).getTotal();
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Returns the mode of the results in the cache according to the engine.
+	 * 
+	 * @return	SolutionCache.FUNDAMENTAL or SolutionCache.ALL.
+	 */
+	private String cacheMode()
+	{
+		if(engine instanceof FundamentalEngine){
+			return SolutionCache.FUNDAMENTAL;
+		}
+		
+		return SolutionCache.ALL;
+	}
+	
+	/**
+	 * Write the solutions kept in the cache, if there are any, to the destination of the solutions.
+	 * The trace needs the search, so it never uses the cache, and neither do a limited number of solutions 
+	 * and a partial placement.
+	 * 
+	 * @return	True if the solutions have been read from the cache, false otherwise.
+	 */
+	private boolean readCachedSolutions()
+	{
+		if(cache == null || isTrace || limit > 0 || placement != null){
+			return false;
+		}
+		BinarySolutionReader reader = cache.getSolutions(n, cacheMode());
+		if(reader == null){
+			return false;
+		}
+		
+		reader.writeText(sink);
+		count = reader.size();
+		total = count;
+		if(engine instanceof FundamentalEngine){
+			FundamentalEngine fundamental = (FundamentalEngine) engine;
+			total = 0;
+			for(long i = 0; i < count; i++){
+				reader.get(i, solution);
+				total += fundamental.groupSize(solution);
+			}
+		}
+		outputManager.writeInLog("The solution is read from the cache.", false);
+		
+		return true;
+	}
+	
 	/**
 	 * Generates a trace file with the positions accepted and rejected 
 	 * by the algorithm that solves the problem.
@@ -354,7 +986,11 @@ public class ProblemManager
 	public void writeTraceFile()
 	{
 		if(n > 0){
-			outputManager.writeFile(null, trace, true, null, null);
+			if(traceWriter == null){	//The problem has not been solved.
+				traceWriter = new TraceWriter(outputManager, traceSampling, traceMaxSize);
+			}
+			traceWriter.close();
+			traceWriter = null;
 		}
 	}
 	
@@ -371,50 +1007,68 @@ public class ProblemManager
 	
 	
 	/**
-	 * Find all solutions to the eight queens problem generalized to n queens on an n x n board.
+	 * Find all solutions to the eight queens problem generalized to n queens on an n x n board. If the 
+	 * number of solutions is limited, the search stops when it is reached, and a single solution is 
+	 * built directly when possible.
+	 * If there is a partial placement, only the solutions that meet it are searched.
 	 * 
 	 * @param s		A vector of integers, solution to the problem.
 	 * @param n		A positive integer that is the size of the board.
-	 * @param k		A positive integer that is the queen to be placed.
 	 */
-	private void queens(int[] s, int n, int k)
+	private void queens(int[] s, int n)
 	{
-		s[k] = 0;
-		
-		while(s[k] < n){
-			s[k] = s[k] + 1;
-			if(completeable(s, k)){
-				if(k == n - 1){
+		count = 0;
+		total = 0;
+		if(formatter == null || formatter.getN() != n){
+			formatter = new SolutionFormatter(n);
+		}
+		try{
+			if(placement != null){
+				new BitmaskEngine().queens(s, placement, new Listener());
+			}
+			else if(isConstructive()){
+				write(ConstructiveSolution.create(n));
+			}
+			else if(localSearch != null){
+				if(localSearch.solve(s, n)){
 					write(s);
 				}
-				else{
-					queens(s, n, k + 1);
-				}
 			}
-			//If trace == true, insert the rejected positions into an ArrayList<String> trace.
-			if(isTrace && k == n -1 && s[k] > 0 && n > 1){
-				writeRejected(s);
+			else{
+				engine.queens(s, n, isTrace, new Listener());
 			}
 		}
+		catch(SearchStopped e){
+			//The limit of solutions has been reached.
+		}
+		total = searchTotal();
+		if(localSearch != null){
+			outputManager.writeInLog(localSearch.getSummary(), false);
+		}
 	}
 	
 	/**
-	 * Check if an extension of the previous partial solution is completable, that is, if it has no 
-	 * queens in the same row or on the same diagonal.
+	 * Returns the text added to the results when the solutions must meet the conditions of a placement.
 	 * 
-	 * @param s		A vector of integers.
-	 * @param k		A positive integer.
-	 * @return		True if it is completable, false otherwise.
+	 * @return	The text, empty if there is no placement.
 	 */
-	private boolean completeable(int[] s, int k)
+	private String placementText()
 	{
-		for(int i = 0; i < k; i++){
-			if(s[i] == s[k] || (Math.abs(s[i] - s[k]) == Math.abs(i - k))){
-				return false;
-			}
-		}
-		
-		return true;
+		return (placement == null) ? "" : " with the fixed queens and empty squares";
+	}
+	
+	/**
+	 * Returns whether the solution is built directly instead of searched. It is done when only one 
+	 * solution is requested, without the trace, the engine finds all the solutions in order and the 
+	 * board is too large to be searched. The solution built is not the first one of the list, so it is 
+	 * only used when the search cannot give that one.
+	 * 
+	 * @return	True if the solution is built directly, false otherwise.
+	 */
+	private boolean isConstructive()
+	{
+		return limit == 1 && n > MAX_COUNT_N && !isTrace && !(engine instanceof FundamentalEngine) && 
+				localSearch == null;
 	}
 	
 	/**
@@ -424,28 +1078,38 @@ public class ProblemManager
 	 */
 	private void write(int[] s)
 	{
-		String solution = buildSolution(s);
+		count++;
+		if(cacheWriter != null){
+			cacheWriter.accept(s);
+		}
 		
-		//If isTrace == true, insert the accepted positions into the ArrayList<String> trace.
+		//If isTrace == true, write the accepted positions to the trace.
 		if(isTrace){
-			trace.add("Position accepted: |============================================> " + solution);
+			writeTrace(ACCEPTED, s);
 		}
 		
 		//Graphic output mode.
 		if(isGraphic){
-			//Initialize the matrix that contains the board
-			graphicOutput = new int[n][n];
-			for(int i = 0; i < s.length; i++){
-				int aux = s[i];
-				graphicOutput[aux - 1][i] = 1;
+			//Keep the solution, the matrix that contains the board is only built if it is requested.
+			if(graphicSolution == null || graphicSolution.length != s.length){
+				graphicSolution = new int[s.length];
 			}
-			String aux = "Solution: " + solution;
-			solution = aux;
-			showGraphicalOutput(solution);
+			System.arraycopy(s, 0, graphicSolution, 0, s.length);
+			graphicOutput = null;
+			showGraphicalOutput(buildSolution(SOLUTION, s), s);
 		}
 		else{
 			//Standard output mode / output file
-			output.add(output.size() + 1 + ": " + solution);
+			formatter.clear();
+			formatter.appendNumber(count);
+			formatter.append(NUMBER_SEPARATOR);
+			formatter.appendSolution(s);
+			sink.write(formatter.getBuffer(), formatter.length());
+		}
+		
+		//Stop the search when the limit of solutions is reached.
+		if(limit > 0 && count >= limit){
+			throw SearchStopped.INSTANCE;
 		}
 	}
 	
@@ -453,57 +1117,70 @@ public class ProblemManager
 	 * Displays the solutions to the problem graphically in an output file.
 	 * 
 	 * @param text	 A solution to the problem.
+	 * @param s		 A vector of integers is the solution to the problem, or null if there is no solution.
 	 */
-	private void showGraphicalOutput(String text)
+	private void showGraphicalOutput(String text, int[] s)
 	{
-		if(n == 2 || n == 3){ 	//There is no solution.
-			outputManager.writeFile(fileName, null, false, text, null);
+		if(graphicWriter == null){	//The graphic file does not have the .txt extension.
+			return;
+		}
+		if(s == null){ 	//There is no solution.
+			graphicWriter.write(text);
 		}
 		else{
-			outputManager.writeFile(fileName, null, false, text, graphicOutput);
+			graphicWriter.write(text, s);
 		}
 	}
 	
 	
 	/**
-	 * Generate a String with the correct positions corresponding to a solution to the problem.
+	 * Generate a String with a text followed by the correct positions corresponding to a solution to the problem.
 	 * 
-	 * @param s		A vector of integers is the solution to the problem.
-	 * @return		A String with the correct positions corresponding to a solution to the problem.
+	 * @param prefix	The text written before the positions.
+	 * @param s			A vector of integers is the solution to the problem.
+	 * @return			A String with the correct positions corresponding to a solution to the problem.
 	 */
-	private String buildSolution(int[] s)
+	private String buildSolution(char[] prefix, int[] s)
 	{
-		Character letter = 'a';				//It corresponds to the first column of the board.
-		int reference = letter.charValue(); //Save the letter value.
-		StringBuilder sb = new StringBuilder();
-		
-		for(int i = 0; i < s.length; i++){
-			sb.append(letter.toString() + s[i] + " ");
-			reference++;
-			letter = new Character((char) reference);
-		}
+		formatter.clear();
+		formatter.append(prefix);
+		formatter.appendSolution(s);
 		
-		return sb.toString();
+		return formatter.toString();
 	}
 	
 	/**
-	 * Add unaccepted positions to the ArrayList<String> of the trace.
+	 * Write unaccepted positions to the trace.
 	 * 
 	 * @param s		An array of positive integers.
 	 */
 	private void writeRejected(int[] s)
 	{
-		Character letter = 'a';				//It corresponds to the first column of the board.
-		int reference = letter.charValue(); //Save the letter value.
-		StringBuilder sb = new StringBuilder();
-		
-		for(int i = 0; i < s.length; i++){
-			sb.append(letter.toString() + s[i] + " ");
-			reference++;
-			letter = new Character((char) reference);
+		writeTrace(REJECTED, s);
+	}
+	
+	/**
+	 * Write a line to the trace file, if the event is not skipped by the sampling, and to the trace 
+	 * list if there is one.
+	 * 
+	 * @param prefix	The text written before the positions.
+	 * @param s			An array of positive integers.
+	 */
+	private void writeTrace(char[] prefix, int[] s)
+	{
+		//The trace file is only created when there is something to write in it.
+		if(traceWriter == null){
+			traceWriter = new TraceWriter(outputManager, traceSampling, traceMaxSize);
+		}
+		if(traceWriter.nextEvent()){
+			formatter.clear();
+			formatter.append(prefix);
+			formatter.appendSolution(s);
+			traceWriter.write(formatter.getBuffer(), formatter.length());
+			if(trace != null){
+				trace.add(formatter.toString());
+			}
 		}
-		
-		trace.add("Rejected position: " + sb);
 	}
 	
 	/**
@@ -520,14 +1197,16 @@ public class ProblemManager
 	 * Check if the limit for board size and number of queens has been exceeded, and if so, 
 	 * inform the user, log the error, and display the help.
 	 * 
-	 * @param n		The size of the board and the number of queens.
+	 * @param n			The size of the board and the number of queens.
+	 * @param limit		The largest size allowed.
 	 */
-	private void checkLimit(int n)
+	private void checkLimit(int n, int limit)
 	{
-		//It is limited to n < 14 to avoid very large text files and times.
-		if(n >= 14){
-			String limit = "Error: The board size and the number of queens cannot be greater than n = 13.";
-			inputManager.writeInLog(limit, true);
+		//The limit depends on the mode to avoid very large text files and times.
+		if(n > limit){
+			String limitErr = "Error: The board size and the number of queens cannot be greater than n = " + limit + 
+					" in this mode.";
+			inputManager.writeInLog(limitErr, true);
 			inputManager.printHelp(false);
 			System.exit(-1);
 		}
@@ -545,14 +1224,116 @@ public class ProblemManager
 			System.exit(-1);
 		}
 		checkGraphicalFile(fileName);	//Check for the existence of the graphic output file.				
+		graphicWriter = outputManager.openGraphicFile(fileName);
+		if(graphicWriter == null){
+			//The file does not have the .txt extension, so the problem is not solved and no trace is created.
+			printHelp(false);
+			return;
+		}
 		if(n == 2 || n == 3){
 			String solution = "The problem for n = " + n + " has no solution.";
-			showGraphicalOutput(solution);
+			showGraphicalOutput(solution, null);
 		}
 		graphicOutput = null;
-		queens(solution, n, 0);
-		if(!(fileName.contains(".txt"))){
-			printHelp(false);
+		graphicSolution = null;
+		queens(solution, n);
+		if(count == 0 && placement != null && n != 2 && n != 3){	//No solution meets the placement.
+			String solution = "The problem for n = " + n + " has no solution" + placementText() + ".";
+			showGraphicalOutput(solution, null);
+		}
+		if(graphicWriter != null){
+			graphicWriter.close();
+			graphicWriter = null;
+		}
+		showFundamentalCount();
+	}
+	
+	/**
+	 * Receives the positions found by the engine and processes them.
+	 */
+	private class Listener implements SolutionListener
+	{
+		/**
+		 * Process a solution to the problem.
+		 * 
+		 * @param s		A vector of integers is the solution to the problem.
+		 */
+		public void accept(int[] s)
+		{
+			write(s);
+		}
+		
+		/**
+		 * Add a position of the last column to the trace.
+		 * 
+		 * @param s		An array of positive integers.
+		 */
+		public void reject(int[] s)
+		{
+			writeRejected(s);
+		}
+	}
+	
+	/**
+	 * Passes the solutions found by the engine to another listener and stops the search when the limit 
+	 * of solutions is reached.
+	 */
+	private class LimitedListener implements SolutionListener
+	{
+		private SolutionListener listener;		//Save the listener that receives the solutions.
+		private long found;						//Save the number of solutions passed.
+		
+		/**
+		 * Constructor for LimitedListener.
+		 * 
+		 * @param listener		The listener that receives the solutions.
+		 */
+		LimitedListener(SolutionListener listener)
+		{
+			this.listener = listener;
+			found = 0;
+		}
+		
+		/**
+		 * Pass a solution to the problem.
+		 * 
+		 * @param s		A vector of integers is the solution to the problem.
+		 */
+		public void accept(int[] s)
+		{
+			listener.accept(s);
+			found++;
+			if(limit > 0 && found >= limit){
+				throw SearchStopped.INSTANCE;
+			}
+		}
+		
+		/**
+		 * Pass a position of the last column.
+		 * 
+		 * @param s		An array of positive integers.
+		 */
+		public void reject(int[] s)
+		{
+			listener.reject(s);
+		}
+	}
+	
+	/**
+	 * Signal used to leave the engine when the limit of solutions is reached. It has no stack trace 
+	 * because it is not an error.
+	 */
+	private static class SearchStopped extends RuntimeException
+	{
+		private static final long serialVersionUID = 1L;
+		private static final SearchStopped INSTANCE = new SearchStopped();
+		
+		/**
+		 * Default constructor for SearchStopped.
+		 */
+		private SearchStopped()
+		{
+			super(null, null, false, false);
 		}
 	}
 }
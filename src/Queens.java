@@ -1,3 +1,7 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
 /**
  * Main class of the program.
  * 
@@ -7,6 +11,27 @@
 public class Queens 
 {
 	private ProblemManager problemMan;		//Save a Problem Manager.
+	private int threads;					//Save the number of threads that solve the problem, 0 if sequential.
+	private boolean isMirror;				//Save whether the mirror of the board is used to halve the search.
+	private boolean isFundamental;			//Save whether only the fundamental solutions are found.
+	private boolean isIterative;			//Save whether the problem is solved without recursion.
+	private boolean isLocalSearch;			//Save whether a single solution is found with the local search.
+	private int traceSampling;				//Save how many trace events there are for every event written.
+	private long traceMaxSize;				//Save the maximum size of a trace file in bytes, 0 if there is no limit.
+	private boolean isCache;				//Save whether the results of previous executions are used.
+	private boolean isRebuildCache;			//Save whether the results in the cache are computed again.
+	private long cacheSize;					//Save the maximum size of the cache in bytes.
+	private SolverMetrics metrics;			//Save the measures of the search, null if they are not requested.
+	private String metricsFile;				//Save the name of the JSON file with the measures, null if there is none.
+	private long limit;						//Save the number of solutions after which the search stops, 0 for all.
+	private int rangeFrom;					//Save the first board size of the range, -1 if there is no range.
+	private int rangeTo;					//Save the last board size of the range, -1 if there is no range.
+	private int servicePort;				//Save the port of the service, -1 if it is not run.
+	private String fixedSquares;			//Save the squares of the fixed queens, null if there are none.
+	private String emptySquares;			//Save the squares that must stay empty, null if there are none.
+	private long memoSize;					//Save the memory budget of the transposition table in bytes, 0 if it is not used.
+	private int workers;					//Save the number of worker processes that count the solutions, 0 if none.
+	private int workerPort;					//Save the port of the coordinator when working for it, -1 otherwise.
 	
 	/**
 	 * Default constructor for Queens.
@@ -14,6 +39,27 @@ public class Queens
 	public Queens()
 	{
 		problemMan = null;
+		threads = 0;
+		isMirror = false;
+		isFundamental = false;
+		isIterative = false;
+		isLocalSearch = false;
+		traceSampling = 1;
+		traceMaxSize = 0;
+		isCache = true;
+		isRebuildCache = false;
+		cacheSize = SolutionCache.DEFAULT_MAX_SIZE;
+		metrics = null;
+		metricsFile = null;
+		limit = 0;
+		rangeFrom = -1;
+		rangeTo = -1;
+		servicePort = -1;
+		fixedSquares = null;
+		emptySquares = null;
+		memoSize = 0;
+		workers = 0;
+		workerPort = -1;
 	}
 	
 	/**
@@ -47,6 +93,427 @@ public class Queens
 		problemMan = newProblemMan;
 	}
 	
+	/**
+	 * Returns the number of threads that solve the problem, 0 if it is solved sequentially.
+	 * 
+	 * @return	The number of threads that solve the problem.
+	 */
+	public int getThreads()
+	{
+		return threads;
+	}
+	
+	/**
+	 * Change the number of threads that solve the problem to another value passed as a parameter.
+	 * 
+	 * @param threads	The number of threads, 0 to solve it sequentially.
+	 */
+	public void setThreads(int threads)
+	{
+		this.threads = threads;
+	}
+	
+	/**
+	 * Returns whether the mirror of the board is used to halve the search.
+	 * 
+	 * @return	True if the mirror is used, false otherwise.
+	 */
+	public boolean isMirror()
+	{
+		return isMirror;
+	}
+	
+	/**
+	 * Change whether the mirror of the board is used to halve the search.
+	 * 
+	 * @param isMirror	True if the mirror is used, false otherwise.
+	 */
+	public void setIsMirror(boolean isMirror)
+	{
+		this.isMirror = isMirror;
+	}
+	
+	/**
+	 * Returns whether only the fundamental solutions are found, that is, one for every group of solutions 
+	 * related by the rotations and reflections of the board.
+	 * 
+	 * @return	True if only the fundamental solutions are found, false otherwise.
+	 */
+	public boolean isFundamental()
+	{
+		return isFundamental;
+	}
+	
+	/**
+	 * Change whether only the fundamental solutions are found.
+	 * 
+	 * @param isFundamental		True if only the fundamental solutions are found, false otherwise.
+	 */
+	public void setIsFundamental(boolean isFundamental)
+	{
+		this.isFundamental = isFundamental;
+	}
+	
+	/**
+	 * Returns whether the problem is solved without recursion.
+	 * 
+	 * @return	True if the problem is solved without recursion, false otherwise.
+	 */
+	public boolean isIterative()
+	{
+		return isIterative;
+	}
+	
+	/**
+	 * Change whether the problem is solved without recursion to another value passed as a parameter.
+	 * 
+	 * @param isIterative		True if the problem is solved without recursion, false otherwise.
+	 */
+	public void setIsIterative(boolean isIterative)
+	{
+		this.isIterative = isIterative;
+	}
+	
+	/**
+	 * Returns whether a single solution is found with the local search instead of backtracking.
+	 * 
+	 * @return	True if the local search is used, false otherwise.
+	 */
+	public boolean isLocalSearch()
+	{
+		return isLocalSearch;
+	}
+	
+	/**
+	 * Change whether a single solution is found with the local search instead of backtracking.
+	 * 
+	 * @param isLocalSearch		True if the local search is used, false otherwise.
+	 */
+	public void setIsLocalSearch(boolean isLocalSearch)
+	{
+		this.isLocalSearch = isLocalSearch;
+	}
+	
+	/**
+	 * Returns the measures of the search.
+	 * 
+	 * @return	The measures of the search, null if they are not requested.
+	 */
+	public SolverMetrics getMetrics()
+	{
+		return metrics;
+	}
+	
+	/**
+	 * Change the measures of the search to another object passed as a parameter.
+	 * 
+	 * @param metrics	The measures of the search, null if they are not requested.
+	 */
+	public void setMetrics(SolverMetrics metrics)
+	{
+		this.metrics = metrics;
+	}
+	
+	/**
+	 * Returns the name of the JSON file with the measures of the search.
+	 * 
+	 * @return	The name of the file, null if there is none.
+	 */
+	public String getMetricsFile()
+	{
+		return metricsFile;
+	}
+	
+	/**
+	 * Change the name of the JSON file with the measures of the search to another one passed as a parameter.
+	 * 
+	 * @param metricsFile	The name of the file, null if there is none.
+	 */
+	public void setMetricsFile(String metricsFile)
+	{
+		this.metricsFile = metricsFile;
+	}
+	
+	/**
+	 * Returns the number of solutions after which the search stops.
+	 * 
+	 * @return	The number of solutions, 0 if all of them are found.
+	 */
+	public long getLimit()
+	{
+		return limit;
+	}
+	
+	/**
+	 * Change the number of solutions after which the search stops to another value passed as a parameter.
+	 * 
+	 * @param limit		The number of solutions, 0 to find all of them.
+	 */
+	public void setLimit(long limit)
+	{
+		this.limit = limit;
+	}
+	
+	/**
+	 * Returns the first board size of the range solved in a single execution.
+	 * 
+	 * @return	The first board size, -1 if there is no range.
+	 */
+	public int getRangeFrom()
+	{
+		return rangeFrom;
+	}
+	
+	/**
+	 * Change the first board size of the range solved in a single execution.
+	 * 
+	 * @param rangeFrom		The first board size, -1 if there is no range.
+	 */
+	public void setRangeFrom(int rangeFrom)
+	{
+		this.rangeFrom = rangeFrom;
+	}
+	
+	/**
+	 * Returns the last board size of the range solved in a single execution.
+	 * 
+	 * @return	The last board size, -1 if there is no range.
+	 */
+	public int getRangeTo()
+	{
+		return rangeTo;
+	}
+	
+	/**
+	 * Change the last board size of the range solved in a single execution.
+	 * 
+	 * @param rangeTo	The last board size, -1 if there is no range.
+	 */
+	public void setRangeTo(int rangeTo)
+	{
+		this.rangeTo = rangeTo;
+	}
+	
+	/**
+	 * Returns the port of the service that answers queries over HTTP.
+	 * 
+	 * @return	The port of the service, -1 if it is not run.
+	 */
+	public int getServicePort()
+	{
+		return servicePort;
+	}
+	
+	/**
+	 * Change the port of the service that answers queries over HTTP.
+	 * 
+	 * @param servicePort	The port of the service, -1 if it is not run.
+	 */
+	public void setServicePort(int servicePort)
+	{
+		this.servicePort = servicePort;
+	}
+	
+	/**
+	 * Returns the squares of the queens fixed in the solutions.
+	 * 
+	 * @return	The squares separated by commas ("a1,c5"), null if there are none.
+	 */
+	public String getFixedSquares()
+	{
+		return fixedSquares;
+	}
+	
+	/**
+	 * Change the squares of the queens fixed in the solutions.
+	 * 
+	 * @param fixedSquares	The squares separated by commas ("a1,c5"), null if there are none.
+	 */
+	public void setFixedSquares(String fixedSquares)
+	{
+		this.fixedSquares = fixedSquares;
+	}
+	
+	/**
+	 * Returns the squares that must stay empty in the solutions.
+	 * 
+	 * @return	The squares separated by commas ("b3,d4"), null if there are none.
+	 */
+	public String getEmptySquares()
+	{
+		return emptySquares;
+	}
+	
+	/**
+	 * Change the squares that must stay empty in the solutions.
+	 * 
+	 * @param emptySquares	The squares separated by commas ("b3,d4"), null if there are none.
+	 */
+	public void setEmptySquares(String emptySquares)
+	{
+		this.emptySquares = emptySquares;
+	}
+	
+	/**
+	 * Returns the memory budget of the transposition table used to count the solutions.
+	 * 
+	 * @return	The memory budget in bytes, 0 if the table is not used.
+	 */
+	public long getMemoSize()
+	{
+		return memoSize;
+	}
+	
+	/**
+	 * Change the memory budget of the transposition table used to count the solutions.
+	 * 
+	 * @param memoSize	The memory budget in bytes, 0 if the table is not used.
+	 */
+	public void setMemoSize(long memoSize)
+	{
+		this.memoSize = memoSize;
+	}
+	
+	/**
+	 * Returns the number of worker processes that count the solutions.
+	 * 
+	 * @return	The number of worker processes, 0 if the solutions are counted in this process.
+	 */
+	public int getWorkers()
+	{
+		return workers;
+	}
+	
+	/**
+	 * Change the number of worker processes that count the solutions.
+	 * 
+	 * @param workers	The number of worker processes, 0 to count the solutions in this process.
+	 */
+	public void setWorkers(int workers)
+	{
+		this.workers = workers;
+	}
+	
+	/**
+	 * Returns the port of the coordinator this process works for.
+	 * 
+	 * @return	The port of the coordinator, -1 if this process is not a worker.
+	 */
+	public int getWorkerPort()
+	{
+		return workerPort;
+	}
+	
+	/**
+	 * Change the port of the coordinator this process works for.
+	 * 
+	 * @param workerPort	The port of the coordinator, -1 if this process is not a worker.
+	 */
+	public void setWorkerPort(int workerPort)
+	{
+		this.workerPort = workerPort;
+	}
+	
+	/**
+	 * Returns how many trace events there are for every event written to the trace file.
+	 * 
+	 * @return	The number of events for every event written, 1 if all of them are written.
+	 */
+	public int getTraceSampling()
+	{
+		return traceSampling;
+	}
+	
+	/**
+	 * Change how many trace events there are for every event written to the trace file.
+	 * 
+	 * @param traceSampling		The number of events for every event written, 1 to write all of them.
+	 */
+	public void setTraceSampling(int traceSampling)
+	{
+		this.traceSampling = traceSampling;
+	}
+	
+	/**
+	 * Returns the maximum size in bytes of a trace file.
+	 * 
+	 * @return	The maximum size of a trace file, 0 if there is no limit.
+	 */
+	public long getTraceMaxSize()
+	{
+		return traceMaxSize;
+	}
+	
+	/**
+	 * Change the maximum size in bytes of a trace file.
+	 * 
+	 * @param traceMaxSize		The maximum size of a trace file, 0 if there is no limit.
+	 */
+	public void setTraceMaxSize(long traceMaxSize)
+	{
+		this.traceMaxSize = traceMaxSize;
+	}
+	
+	/**
+	 * Returns whether the results of previous executions are used.
+	 * 
+	 * @return	True if the cache is used, false otherwise.
+	 */
+	public boolean isCache()
+	{
+		return isCache;
+	}
+	
+	/**
+	 * Change whether the results of previous executions are used.
+	 * 
+	 * @param isCache	True if the cache is used, false otherwise.
+	 */
+	public void setIsCache(boolean isCache)
+	{
+		this.isCache = isCache;
+	}
+	
+	/**
+	 * Returns whether the results in the cache are computed again and replaced.
+	 * 
+	 * @return	True if the results are computed again, false otherwise.
+	 */
+	public boolean isRebuildCache()
+	{
+		return isRebuildCache;
+	}
+	
+	/**
+	 * Change whether the results in the cache are computed again and replaced.
+	 * 
+	 * @param isRebuildCache	True if the results are computed again, false otherwise.
+	 */
+	public void setIsRebuildCache(boolean isRebuildCache)
+	{
+		this.isRebuildCache = isRebuildCache;
+	}
+	
+	/**
+	 * Returns the maximum size of the cache in bytes.
+	 * 
+	 * @return	The maximum size of the cache.
+	 */
+	public long getCacheSize()
+	{
+		return cacheSize;
+	}
+	
+	/**
+	 * Change the maximum size of the cache in bytes.
+	 * 
+	 * @param cacheSize		The maximum size of the cache.
+	 */
+	public void setCacheSize(long cacheSize)
+	{
+		this.cacheSize = cacheSize;
+	}
+	
 	/**
 	 * Run the application according to the selected parameters.
 	 * 
@@ -58,29 +525,60 @@ public class Queens
 	 * Case 5: [-g] n [output.txt]			Generates an output file with the graphical solution.
 	 * Case 6: [-t] n [output.txt]			Generates an output file with the solution and another with the trace.
 	 * Case 7: [-t] [-g] n [output.txt]		Generates an output file with the graphical solution and another with the trace.
+	 * Case 8: [-c] n						Displays the number of solutions via standard output.
+	 * Case 9: [-b] n [output]				Generates a binary file with the solution.
+	 * Case 10: [-x] [input] [output.txt]	Converts a binary file with the solution into an output file.
+	 * Case 11: [-c] [-r from..to]			Displays a table with the number of solutions for every n of the range.
+	 * Case 12: [-d port]					Answers queries about the problem over HTTP until the program is stopped.
+	 * Case 13: [-wp port]					Counts the prefixes sent by a coordinator on the given local port.
+	 * 
+	 * One of the following options can be added to any case: [-p threads] to solve the problem in parallel, 
+	 * [-s] to halve the search using the mirror of the board, [-u] to find only the fundamental solutions, 
+	 * [-i] to solve it without recursion or [-l] to find a single solution with a local search (cases 2, 4 
+	 * and 5).
+	 * The options [-ts k] and [-tm megabytes] can be added to the cases with the trace, and the options 
+	 * [-nc], [-rc] and [-cs megabytes] to the cases that use the cache (2, 4 and 8). The options [-m] and 
+	 * [-mf file] measure the search. The option [-k count] stops the search after the given number of 
+	 * solutions in the cases that write them (2 to 7). The options [-q squares] and [-e squares] keep only 
+	 * the solutions with queens on the given squares and without queens on others (cases 2, 4, 5 and 8). 
+	 * The option [-tt megabytes] counts the solutions with a transposition table and the option [-w workers] 
+	 * with worker processes (cases 8 and 11).
 	 * 
 	 * @param v		A String array with the execution arguments.
 	 */
 	public void runQueens(String[] v)
 	{
 		try{
-			switch(v.length){
-				case 1:
-					manageCases1y2(v);
-					break;
-				case 2:
-					manageCases3y4(v);
-					break;
-				case 3:
-					manageCases5y6(v);
-					break;
-				case 4:
-					manageCase7(v);
-					break;
-				default:
-					manageInvalidSyntax();
-					break;
+			v = manageExtraOptions(v);
+			if(rangeFrom >= 0){
+				manageCase11(v);
+			}
+			else if(servicePort >= 0){
+				manageCase12(v);
+			}
+			else if(workerPort >= 0){
+				manageCase13(v);
+			}
+			else{
+				switch(v.length){
+					case 1:
+						manageCases1y2(v);
+						break;
+					case 2:
+						manageCases3y4(v);
+						break;
+					case 3:
+						manageCases5y6(v);
+						break;
+					case 4:
+						manageCase7(v);
+						break;
+					default:
+						manageInvalidSyntax();
+						break;
+				}
 			}
+			reportMetrics();
 		}
 		catch(Exception e){
 			manageInvalidSyntax();
@@ -88,6 +586,285 @@ public class Queens
 	}
 	
 	
+	/**
+	 * Read the options that can be added to the cases of the program and remove them from the arguments.
+	 * Option [-p threads]: Solve the problem in parallel with the given number of threads.
+	 * Option [-s]: Halve the search using the mirror of the board.
+	 * Option [-u]: Find only the fundamental solutions.
+	 * Option [-i]: Solve the problem without recursion.
+	 * Option [-l]: Find a single solution with the min-conflicts local search.
+	 * Option [-tt megabytes]: Count the solutions with a transposition table of the given size.
+	 * Option [-w workers]: Count the solutions with the given number of worker processes.
+	 * Only one of the seven previous options can be chosen.
+	 * Option [-ts k]: Write only one of every k events to the trace file.
+	 * Option [-tm megabytes]: Split the trace into files of the given size, keeping the last ones.
+	 * Option [-nc]: Do not use the results of previous executions.
+	 * Option [-rc]: Solve the problem again and replace the result kept in the cache.
+	 * Option [-cs megabytes]: Maximum size of the cache.
+	 * Option [-m]: Measure the search and write a summary in the log. The cache is not used.
+	 * Option [-mf file]: Also write the measures to a JSON file.
+	 * Option [-k count]: Stop the search after the given number of solutions.
+	 * Option [-r from..to]: Count the solutions for every board size of the range.
+	 * Option [-d port]: Answer queries over HTTP on the given port.
+	 * Option [-q squares]: Find only the solutions with queens on the given squares.
+	 * Option [-e squares]: Find only the solutions without queens on the given squares.
+	 * Option [-wp port]: Work for the coordinator listening on the given port.
+	 * 
+	 * @param v		A String array with the execution arguments.
+	 * @return		The execution arguments without these options.
+	 */
+	private String[] manageExtraOptions(String[] v)
+	{
+		ArrayList<String> args = new ArrayList<String>();
+		
+		for(int i = 0; i < v.length; i++){
+			if(v[i].equals("-p")){
+				threads = Integer.parseInt(v[i + 1]);
+				if(threads < 1){
+					throw new IllegalArgumentException("The number of threads must be greater than 0.");
+				}
+				i++;
+			}
+			else if(v[i].equals("-s")){
+				isMirror = true;
+			}
+			else if(v[i].equals("-u")){
+				isFundamental = true;
+			}
+			else if(v[i].equals("-i")){
+				isIterative = true;
+			}
+			else if(v[i].equals("-l")){
+				isLocalSearch = true;
+			}
+			else if(v[i].equals("-ts")){
+				traceSampling = Integer.parseInt(v[i + 1]);
+				if(traceSampling < 1){
+					throw new IllegalArgumentException("The trace sampling must be greater than 0.");
+				}
+				i++;
+			}
+			else if(v[i].equals("-nc")){
+				isCache = false;
+			}
+			else if(v[i].equals("-rc")){
+				isRebuildCache = true;
+			}
+			else if(v[i].equals("-cs")){
+				cacheSize = Long.parseLong(v[i + 1]) * 1024 * 1024;
+				if(cacheSize < 0){
+					throw new IllegalArgumentException("The size of the cache cannot be negative.");
+				}
+				i++;
+			}
+			else if(v[i].equals("-m")){
+				metrics = new SolverMetrics();
+			}
+			else if(v[i].equals("-mf")){
+				metricsFile = v[i + 1];
+				metrics = new SolverMetrics();
+				i++;
+			}
+			else if(v[i].equals("-k")){
+				limit = Long.parseLong(v[i + 1]);
+				if(limit < 1){
+					throw new IllegalArgumentException("The number of solutions must be greater than 0.");
+				}
+				i++;
+			}
+			else if(v[i].equals("-r")){
+				String[] bounds = v[i + 1].split("\\.\\.");
+				if(bounds.length != 2){
+					throw new IllegalArgumentException("The range must be written as from..to.");
+				}
+				rangeFrom = Integer.parseInt(bounds[0]);
+				rangeTo = Integer.parseInt(bounds[1]);
+				if(rangeFrom < 0 || rangeTo < rangeFrom){
+					throw new IllegalArgumentException("The range must be written as from..to, with from <= to.");
+				}
+				i++;
+			}
+			else if(v[i].equals("-d")){
+				servicePort = Integer.parseInt(v[i + 1]);
+				if(servicePort < 0 || servicePort > 65535){
+					throw new IllegalArgumentException("The port must be between 0 and 65535.");
+				}
+				i++;
+			}
+			else if(v[i].equals("-q")){
+				fixedSquares = v[i + 1];
+				i++;
+			}
+			else if(v[i].equals("-e")){
+				emptySquares = v[i + 1];
+				i++;
+			}
+			else if(v[i].equals("-tt")){
+				memoSize = Long.parseLong(v[i + 1]) * 1024 * 1024;
+				if(memoSize < 1){
+					throw new IllegalArgumentException("The size of the transposition table must be greater than 0.");
+				}
+				i++;
+			}
+			else if(v[i].equals("-w")){
+				workers = Integer.parseInt(v[i + 1]);
+				if(workers < 1){
+					throw new IllegalArgumentException("The number of workers must be greater than 0.");
+				}
+				i++;
+			}
+			else if(v[i].equals("-wp")){
+				workerPort = Integer.parseInt(v[i + 1]);
+				if(workerPort < 1 || workerPort > 65535){
+					throw new IllegalArgumentException("The port must be between 1 and 65535.");
+				}
+				i++;
+			}
+			else if(v[i].equals("-tm")){
+				traceMaxSize = Long.parseLong(v[i + 1]) * 1024 * 1024;
+				if(traceMaxSize < 1){
+					throw new IllegalArgumentException("The size of a trace file must be greater than 0.");
+				}
+				i++;
+			}
+			else{
+				args.add(v[i]);
+			}
+		}
+		if((threads > 0 ? 1 : 0) + (isMirror ? 1 : 0) + (isFundamental ? 1 : 0) + (isIterative ? 1 : 0) + 
+				(isLocalSearch ? 1 : 0) + (memoSize > 0 ? 1 : 0) + (workers > 0 ? 1 : 0) > 1){
+			throw new IllegalArgumentException("Only one of the options -p, -s, -u, -i, -l, -tt and -w can be chosen.");
+		}
+		if(memoSize > 0 && (!args.contains("-c") || metrics != null || servicePort >= 0)){
+			throw new IllegalArgumentException("The transposition table can only be used to count the solutions.");
+		}
+		if(workers > 0 && (!args.contains("-c") || metrics != null || servicePort >= 0)){
+			throw new IllegalArgumentException("The workers can only be used to count the solutions.");
+		}
+		if(threads > 0 && limit > 0){
+			throw new IllegalArgumentException("The number of solutions cannot be limited in parallel mode.");
+		}
+		if(args.contains("-c") && limit > 0){
+			throw new IllegalArgumentException("The number of solutions cannot be limited in count mode.");
+		}
+		if(isLocalSearch && (args.contains("-t") || args.contains("-c") || args.contains("-b") || limit > 0)){
+			throw new IllegalArgumentException("The local search only writes a single solution.");
+		}
+		if((fixedSquares != null || emptySquares != null) && (threads > 0 || isMirror || isFundamental || 
+				isIterative || isLocalSearch || memoSize > 0 || workers > 0 || metrics != null || rangeFrom >= 0 || servicePort >= 0 || 
+				args.contains("-t") || args.contains("-b"))){
+			throw new IllegalArgumentException("The options -q and -e can only be used with the default engine.");
+		}
+		if(servicePort >= 0 && (rangeFrom >= 0 || metrics != null || threads > 0 || isFundamental || 
+				isLocalSearch)){
+			throw new IllegalArgumentException("The service cannot be combined with -r, -m, -mf, -p, -u or -l.");
+		}
+		if(metrics != null && rangeFrom >= 0){
+			throw new IllegalArgumentException("The search can only be measured for a single board size.");
+		}
+		if(metrics != null && (threads > 0 || isMirror || isFundamental || isIterative || isLocalSearch)){
+			throw new IllegalArgumentException("The search can only be measured with the default engine.");
+		}
+		
+		return args.toArray(new String[args.size()]);
+	}
+	
+	/**
+	 * Returns the engine that solves the problem according to the chosen options.
+	 * 
+	 * @return	The engine that solves the problem.
+	 */
+	private SolverEngine createEngine()
+	{
+		if(threads > 0){
+			return new ParallelEngine(threads);
+		}
+		if(isMirror){
+			return new MirrorEngine();
+		}
+		if(isFundamental){
+			return new FundamentalEngine();
+		}
+		if(isIterative){
+			return new IterativeEngine();
+		}
+		if(memoSize > 0){
+			return new MemoEngine(memoSize);
+		}
+		if(workers > 0){
+			return new DistributedEngine(workers);
+		}
+		if(metrics != null){
+			return new MetricsEngine(metrics);
+		}
+		
+		return new BitmaskEngine();
+	}
+	
+	/**
+	 * Returns a ProblemManager for the chosen engine, trace and cache options.
+	 * 
+	 * @param n 				The size of the board and the number of queens.
+	 * @param fileName		    The name of the output file.
+	 * @param isTrace			True if it is the trace, false otherwise.
+	 * @param isGraphic			True if it is the graphical output of the problem.
+	 * @return					A ProblemManager object.
+	 */
+	private ProblemManager createProblemManager(int n, String fileName, boolean isTrace, boolean isGraphic)
+	{
+		ProblemManager manager = new ProblemManager(n, fileName, isTrace, isGraphic, createEngine());
+		manager.setTraceSampling(traceSampling);
+		manager.setTraceMaxSize(traceMaxSize);
+		manager.setLimit(limit);
+		if(isLocalSearch){
+			manager.setLocalSearch(new MinConflictsEngine());
+		}
+		if(fixedSquares != null || emptySquares != null){
+			PartialPlacement placement = new PartialPlacement(n);
+			if(fixedSquares != null){
+				placement.fix(fixedSquares);
+			}
+			if(emptySquares != null){
+				placement.keepEmpty(emptySquares);
+			}
+			manager.setPlacement(placement);
+		}
+		//The cache is not used when the search is measured or a single solution is found.
+		if(isCache && metrics == null && !isLocalSearch){
+			SolutionCache cache = new SolutionCache(new File(SolutionCache.DEFAULT_DIRECTORY), cacheSize, 
+					manager.getOutputManager());
+			cache.setIsRebuild(isRebuildCache);
+			manager.setCache(cache);
+		}
+		
+		return manager;
+	}
+	
+	/**
+	 * Write the measures of the search in the log and, if requested, in the JSON file. Nothing is 
+	 * written if the measures were not requested or there was no search.
+	 */
+	private void reportMetrics()
+	{
+		if(metrics == null || metrics.getSearches() == 0 || problemMan == null){
+			return;
+		}
+		OutputManager outputManager = problemMan.getOutputManager();
+		outputManager.writeInLog(metrics.getSummary(), false);
+		if(metricsFile != null){
+			try{
+				metrics.writeJson(metricsFile);
+				String success = "Information: File " + "\"" + metricsFile + "\"" + " successfully generated.";
+				outputManager.writeInLog(success, true);
+			}
+			catch(IOException e){
+				String metricsProblem = "Error: There was a problem generating the metrics file: " + metricsFile;
+				outputManager.writeInLog(metricsProblem, true);
+				System.exit(-1);
+			}
+		}
+	}
+	
 	/**
 	 * Manage cases 1 and 2 of the program.
 	 * Case 1:	Diplays the help. 
@@ -105,15 +882,16 @@ public class Queens
 		//Case 2.
 		else{
 			int aux = Integer.parseInt(v[0]);
-			problemMan = new ProblemManager(aux, null, false, false);
+			problemMan = createProblemManager(aux, null, false, false);
 			problemMan.showOutput();
 		}
 	}
 	
 	/**
-	 * Manage cases 3 and 4 of the program.
+	 * Manage cases 3, 4 and 8 of the program.
 	 * Case 3: 	It displays the solution to the problem via standard output and generates the file with the trace.
 	 * Case 4:  Generate an output file with the solution.
+	 * Case 8:  Displays the number of solutions via standard output.
 	 * 
 	 * @param v		A String array with the execution arguments.
 	 */
@@ -122,14 +900,20 @@ public class Queens
 		//Case 3.
 		if(v[0].equals("-t")){
 			int aux = Integer.parseInt(v[1]);
-			problemMan = new ProblemManager(aux, null, true, false);
+			problemMan = createProblemManager(aux, null, true, false);
 			problemMan.showOutput();
 			problemMan.writeTraceFile();
 		}
+		//Case 8.
+		else if(v[0].equals("-c")){
+			int aux = Integer.parseInt(v[1]);
+			problemMan = createProblemManager(aux, null, false, false);
+			problemMan.showCount();
+		}
 		//Case 4.
 		else if(v[1] != null){
 			int aux = Integer.parseInt(v[0]);
-			problemMan = new ProblemManager(aux, v[1], false, false);
+			problemMan = createProblemManager(aux, v[1], false, false);
 			problemMan.showOutput();
 		}
 		else{
@@ -138,9 +922,11 @@ public class Queens
 	}
 	
 	/**
-	 * Manage cases 5 and 6 of the program.
+	 * Manage cases 5, 6, 9 and 10 of the program.
 	 * Case 5:	Generate an output file with the graphical solution.
 	 * Case 6:  Generate an output file with the solution and another with the trace.
+	 * Case 9:	Generate a binary file with the solution.
+	 * Case 10:	Convert a binary file with the solution into an output file.
 	 * 
 	 * @param v		A String array with the execution arguments.
 	 */
@@ -149,17 +935,30 @@ public class Queens
 		//Case 5.
 		if(v[0].equals("-g")){
 			int aux = Integer.parseInt(v[1]);
-			problemMan = new ProblemManager(aux, v[2], false, true);
+			problemMan = createProblemManager(aux, v[2], false, true);
+			problemMan.showOutput();
 		}
 		//Case 6.
 		else if(v[0].equals("-t")){
 			int aux = Integer.parseInt(v[1]);
-			problemMan = new ProblemManager(aux, v[2], true, false);
+			problemMan = createProblemManager(aux, v[2], true, false);
 			problemMan.showOutput();
 			if(v[2].contains(".txt")){
 				problemMan.writeTraceFile();
 			}
 		}
+		//Case 9.
+		else if(v[0].equals("-b")){
+			int aux = Integer.parseInt(v[1]);
+			problemMan = createProblemManager(aux, v[2], false, false);
+			problemMan.showBinaryOutput();
+		}
+		//Case 10.
+		else if(v[0].equals("-x")){
+			problemMan = new ProblemManager();
+			problemMan.setFileName(v[2]);
+			problemMan.convertBinaryFile(v[1]);
+		}
 		else{
 			manageInvalidSyntax();
 		}
@@ -175,7 +974,8 @@ public class Queens
 	{
 		if(v[0].equals("-t") && v[1].equals("-g")){
 			int aux = Integer.parseInt(v[2]);
-			problemMan = new ProblemManager(aux, v[3], true, true);
+			problemMan = createProblemManager(aux, v[3], true, true);
+			problemMan.showOutput();
 			if(v[3].contains(".txt")){
 				problemMan.writeTraceFile();
 			}
@@ -185,6 +985,82 @@ public class Queens
 		}
 	}
 	
+	/**
+	 * Manage case 11 of the application: Displays a table with the number of solutions for every board 
+	 * size of the range. The same ProblemManager, engine and cache are used for all of them.
+	 * 
+	 * @param v		A String array with the execution arguments, without the range.
+	 */
+	private void manageCase11(String[] v)
+	{
+		if(v.length == 1 && v[0].equals("-c")){
+			problemMan = createProblemManager(rangeFrom, null, false, false);
+			problemMan.showCountRange(rangeFrom, rangeTo);
+		}
+		else{
+			manageInvalidSyntax();
+		}
+	}
+	
+	/**
+	 * Manage case 12 of the application: Answers queries about the problem over HTTP on the loopback 
+	 * interface. The program keeps running until it is stopped.
+	 * 
+	 * @param v		A String array with the execution arguments, without the port.
+	 */
+	private void manageCase12(String[] v)
+	{
+		if(v.length == 0){
+			OutputManager outputManager = new OutputManager();
+			SolutionCache cache = null;
+			if(isCache){
+				cache = new SolutionCache(new File(SolutionCache.DEFAULT_DIRECTORY), cacheSize, outputManager);
+				cache.setIsRebuild(isRebuildCache);
+			}
+			final SolverService service = new SolverService(servicePort, createEngine(), cache, outputManager);
+			try{
+				service.start();
+			}
+			catch(IOException e){
+				String serviceErr = "Error: The service cannot be started on port " + servicePort + ".";
+				outputManager.writeInLog(serviceErr, true);
+				System.exit(-1);
+			}
+			//The service is stopped before the log is closed, so the last event is written.
+			Logger.runBeforeClose(new Runnable(){
+				public void run()
+				{
+					service.stop();
+				}
+			});
+		}
+		else{
+			manageInvalidSyntax();
+		}
+	}
+	
+	/**
+	 * Manage case 13 of the application: Counts the solutions of the prefixes sent by a coordinator 
+	 * started with the option -w, until it closes the connection.
+	 * 
+	 * @param v		A String array with the execution arguments, without the port.
+	 */
+	private void manageCase13(String[] v)
+	{
+		if(v.length == 0){
+			try{
+				DistributedEngine.work(workerPort);
+			}
+			catch(IOException e){
+				//The coordinator has stopped, so the work is lost and sent to another worker.
+				System.exit(-1);
+			}
+		}
+		else{
+			manageInvalidSyntax();
+		}
+	}
+	
 	/**
 	 * Handles syntax not accepted by the application.
 	 */
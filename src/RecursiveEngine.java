@@ -0,0 +1,118 @@
+/**
+ * Solver engine that checks every new queen against all the queens already placed.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class RecursiveEngine implements SolverEngine
+{
+	/**
+	 * Default constructor for RecursiveEngine.
+	 */
+	public RecursiveEngine()
+	{
+	}
+	
+	/**
+	 * Find all solutions to the problem and pass them to a listener.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	public void queens(int[] s, int n, boolean isTrace, SolutionListener listener)
+	{
+		queens(s, n, 0, isTrace, listener);
+	}
+	
+	/**
+	 * Count the solutions to the problem without building them.
+	 * 
+	 * @param n		A positive integer that is the size of the board.
+	 * @return		The number of solutions.
+	 */
+	public long count(int n)
+	{
+		if(n <= 0){
+			return 0;
+		}
+		
+		return count(new int[n], n, 0);
+	}
+	
+	/**
+	 * Place the queen k and all the following ones.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param k			A positive integer that is the queen to be placed.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	private void queens(int[] s, int n, int k, boolean isTrace, SolutionListener listener)
+	{
+		s[k] = 0;
+		
+		while(s[k] < n){
+			s[k] = s[k] + 1;
+			if(completeable(s, k)){
+				if(k == n - 1){
+					listener.accept(s);
+				}
+				else{
+					queens(s, n, k + 1, isTrace, listener);
+				}
+			}
+			//If trace == true, report the positions tried in the last column.
+			if(isTrace && k == n -1 && s[k] > 0 && n > 1){
+				listener.reject(s);
+			}
+		}
+	}
+	
+	/**
+	 * Count the solutions that extend the queens already placed before column k.
+	 * 
+	 * @param s		A vector of integers, partial solution to the problem.
+	 * @param n		A positive integer that is the size of the board.
+	 * @param k		A positive integer that is the queen to be placed.
+	 * @return		The number of solutions.
+	 */
+	private long count(int[] s, int n, int k)
+	{
+		long total = 0;
+		
+		for(s[k] = 1; s[k] <= n; s[k]++){
+			if(completeable(s, k)){
+				if(k == n - 1){
+					total++;
+				}
+				else{
+					total += count(s, n, k + 1);
+				}
+			}
+		}
+		
+		return total;
+	}
+	
+	/**
+	 * Check if an extension of the previous partial solution is completable, that is, if it has no 
+	 * queens in the same row or on the same diagonal.
+	 * 
+	 * @param s		A vector of integers.
+	 * @param k		A positive integer.
+	 * @return		True if it is completable, false otherwise.
+	 */
+	private boolean completeable(int[] s, int k)
+	{
+		for(int i = 0; i < k; i++){
+			if(s[i] == s[k] || (Math.abs(s[i] - s[k]) == Math.abs(i - k))){
+				return false;
+			}
+		}
+		
+		return true;
+	}
+}
@@ -0,0 +1,95 @@
+/**
+ * It represents a list of solutions kept in memory in the order in which they were found. The 
+ * solutions are stored one after another in a single array of integers.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class SolutionBuffer implements SolutionListener
+{
+	private int n;			//Save the board size.
+	private int[] data;		//Save the rows of every solution.
+	private int size;		//Save the number of solutions.
+	
+	/**
+	 * Constructor for SolutionBuffer in which the board size is passed as a parameter.
+	 * 
+	 * @param n		The size of the board.
+	 */
+	public SolutionBuffer(int n)
+	{
+		this.n = n;
+		data = new int[Math.max(n, 1) * 16];
+		size = 0;
+	}
+	
+	/**
+	 * Returns the size of the board.
+	 * 
+	 * @return	The size of the board.
+	 */
+	public int getN()
+	{
+		return n;
+	}
+	
+	/**
+	 * Returns the number of solutions stored.
+	 * 
+	 * @return	The number of solutions stored.
+	 */
+	public int size()
+	{
+		return size;
+	}
+	
+	/**
+	 * Copy the solution i into an array passed as a parameter.
+	 * 
+	 * @param i		The position of the solution, starting at 0.
+	 * @param s		An array of length n where the solution is copied.
+	 */
+	public void get(int i, int[] s)
+	{
+		System.arraycopy(data, i * n, s, 0, n);
+	}
+	
+	/**
+	 * Store a copy of a solution.
+	 * 
+	 * @param s		A vector of integers is the solution to the problem.
+	 */
+	public void accept(int[] s)
+	{
+		if((size + 1) * n > data.length){
+			int[] aux = new int[data.length * 2];
+			System.arraycopy(data, 0, aux, 0, size * n);
+			data = aux;
+		}
+		System.arraycopy(s, 0, data, size * n, n);
+		size++;
+	}
+	
+	/**
+	 * The positions tried are not stored.
+	 * 
+	 * @param s		An array of positive integers.
+	 */
+	public void reject(int[] s)
+	{
+	}
+	
+	/**
+	 * Pass all the stored solutions, in order, to a listener.
+	 * 
+	 * @param listener	The receiver of the solutions.
+	 */
+	public void replay(SolutionListener listener)
+	{
+		int[] s = new int[n];
+		for(int i = 0; i < size; i++){
+			get(i, s);
+			listener.accept(s);
+		}
+	}
+}
@@ -0,0 +1,339 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.zip.CRC32;
+
+/**
+ * It represents a directory where the results of previous executions are kept, so that solving the 
+ * same problem again only needs to read a file. Every result is identified by the board size and the 
+ * mode, ALL or FUNDAMENTAL, and has a file with its checksum beside it:
+ * 
+ * "n8_all.count":		The number of solutions and the total number of solutions, as two longs.
+ * "n8_all.qns":		The solutions, in the binary format of BinarySolutionWriter.
+ * 
+ * When the files take more than the maximum size, the ones used least recently are deleted. Any problem 
+ * with the cache is written to the log and the problem is solved as if there were no cache.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class SolutionCache 
+{
+	public static final String DEFAULT_DIRECTORY = "queens_cache";	//Default directory of the cache.
+	public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;	//Default maximum size in bytes.
+	public static final String ALL = "all";							//Mode with all the solutions.
+	public static final String FUNDAMENTAL = "fundamental";			//Mode with the fundamental solutions.
+	
+	private static final String COUNT = ".count";		//Extension of the counts.
+	private static final String SOLUTIONS = ".qns";		//Extension of the solutions.
+	private static final String CHECKSUM = ".crc";		//Extension of the checksums.
+	private static final String TEMPORARY = ".tmp";		//Extension of the solutions being written, after a unique name.
+	
+	private File directory;					//Save the directory of the cache.
+	private long maxSize;					//Save the maximum size of the cache in bytes.
+	private boolean isRebuild;				//Save whether the results are computed again and replaced.
+	private OutputManager outputManager;	//Save the output manager that reports the problems.
+	
+	/**
+	 * Constructor for SolutionCache.
+	 * 
+	 * @param directory			The directory of the cache. It is created if it does not exist.
+	 * @param maxSize			The maximum size of the cache in bytes.
+	 * @param outputManager		The output manager that reports the problems.
+	 */
+	public SolutionCache(File directory, long maxSize, OutputManager outputManager)
+	{
+		this.directory = directory;
+		this.maxSize = maxSize;
+		this.outputManager = outputManager;
+		isRebuild = false;
+	}
+	
+	/**
+	 * Returns the directory of the cache.
+	 * 
+	 * @return	The directory of the cache.
+	 */
+	public File getDirectory()
+	{
+		return directory;
+	}
+	
+	/**
+	 * Returns the maximum size of the cache in bytes.
+	 * 
+	 * @return	The maximum size of the cache.
+	 */
+	public long getMaxSize()
+	{
+		return maxSize;
+	}
+	
+	/**
+	 * Returns whether the results are computed again and replaced instead of being read.
+	 * 
+	 * @return	True if the results are computed again, false otherwise.
+	 */
+	public boolean isRebuild()
+	{
+		return isRebuild;
+	}
+	
+	/**
+	 * Change whether the results are computed again and replaced instead of being read.
+	 * 
+	 * @param isRebuild		True if the results are computed again, false otherwise.
+	 */
+	public void setIsRebuild(boolean isRebuild)
+	{
+		this.isRebuild = isRebuild;
+	}
+	
+	/**
+	 * Returns the number of solutions kept for a board size and a mode.
+	 * 
+	 * @param n			The size of the board.
+	 * @param mode		ALL or FUNDAMENTAL.
+	 * @return			The number of solutions and the total number of solutions, or null if they are not kept.
+	 */
+	public long[] getCount(int n, String mode)
+	{
+		File file = entry(n, mode, COUNT);
+		if(isRebuild || !isValid(file)){
+			return null;
+		}
+		try{
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+			file.setLastModified(System.currentTimeMillis());
+			
+			return new long[] {buffer.getLong(), buffer.getLong()};
+		}
+		catch(Exception e){
+			reportProblem(file);
+			return null;
+		}
+	}
+	
+	/**
+	 * Keep the number of solutions for a board size and a mode.
+	 * 
+	 * @param n			The size of the board.
+	 * @param mode		ALL or FUNDAMENTAL.
+	 * @param count		The number of solutions.
+	 * @param total		The total number of solutions, equal to count in mode ALL.
+	 */
+	public void putCount(int n, String mode, long count, long total)
+	{
+		File file = entry(n, mode, COUNT);
+		try{
+			directory.mkdirs();
+			ByteBuffer buffer = ByteBuffer.allocate(16);
+			buffer.putLong(count);
+			buffer.putLong(total);
+			Files.write(file.toPath(), buffer.array());
+			commit(file);
+		}
+		catch(IOException e){
+			reportProblem(file);
+		}
+	}
+	
+	/**
+	 * Returns the solutions kept for a board size and a mode.
+	 * 
+	 * @param n			The size of the board.
+	 * @param mode		ALL or FUNDAMENTAL.
+	 * @return			A reader of the solutions, or null if they are not kept.
+	 */
+	public BinarySolutionReader getSolutions(int n, String mode)
+	{
+		File file = entry(n, mode, SOLUTIONS);
+		if(isRebuild || !isValid(file)){
+			return null;
+		}
+		try{
+			BinarySolutionReader reader = new BinarySolutionReader(file.getPath());
+			file.setLastModified(System.currentTimeMillis());
+			
+			return reader;
+		}
+		catch(IOException e){
+			reportProblem(file);
+			return null;
+		}
+	}
+	
+	/**
+	 * Opens a new file for the solutions of a board size and a mode. The file has a unique name, so 
+	 * several executions can write the same result at the same time, and it does not replace the 
+	 * solutions kept until putSolutions() is called.
+	 * 
+	 * @param n			The size of the board.
+	 * @param mode		ALL or FUNDAMENTAL.
+	 * @return			The open binary file, or null if it cannot be created.
+	 */
+	public BinarySolutionWriter openSolutions(int n, String mode)
+	{
+		directory.mkdirs();
+		File temporary = null;
+		try{
+			temporary = File.createTempFile("n" + n + "_" + mode + "_", SOLUTIONS + TEMPORARY, directory);
+			//The file is not left behind if the application ends before putSolutions().
+			temporary.deleteOnExit();
+			int symmetry = mode.equals(FUNDAMENTAL) ? BinarySolutionWriter.FUNDAMENTAL_SOLUTIONS : 
+					BinarySolutionWriter.ALL_SOLUTIONS;
+			
+			return new BinarySolutionWriter(temporary.getPath(), n, symmetry);
+		}
+		catch(IOException e){
+			if(temporary != null){
+				temporary.delete();
+			}
+			reportProblem(entry(n, mode, SOLUTIONS));
+			return null;
+		}
+	}
+	
+	/**
+	 * Close the file returned by openSolutions() and keep the solutions written to it, replacing the 
+	 * ones kept in a single step. If the file could not be written, it is deleted.
+	 * 
+	 * @param n			The size of the board.
+	 * @param mode		ALL or FUNDAMENTAL.
+	 * @param writer	The file returned by openSolutions().
+	 */
+	public void putSolutions(int n, String mode, BinarySolutionWriter writer)
+	{
+		File file = entry(n, mode, SOLUTIONS);
+		File temporary = new File(writer.getFile());
+		try{
+			writer.close();
+			Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, 
+					StandardCopyOption.ATOMIC_MOVE);
+			commit(file);
+		}
+		catch(IOException e){
+			temporary.delete();
+			reportProblem(file);
+		}
+	}
+	
+	/**
+	 * Returns the file of a result.
+	 * 
+	 * @param n				The size of the board.
+	 * @param mode			ALL or FUNDAMENTAL.
+	 * @param extension		The extension of the file.
+	 * @return				The file of the result.
+	 */
+	private File entry(int n, String mode, String extension)
+	{
+		return new File(directory, "n" + n + "_" + mode + extension);
+	}
+	
+	/**
+	 * Write the checksum of a new result and delete the oldest results if the cache is too big.
+	 * 
+	 * @param file				The file of the result.
+	 * @throws IOException		If the checksum cannot be written.
+	 */
+	private void commit(File file) throws IOException
+	{
+		File checksum = new File(file.getPath() + CHECKSUM);
+		Files.write(checksum.toPath(), Long.toString(checksum(file)).getBytes("US-ASCII"));
+		evict(file);
+	}
+	
+	/**
+	 * Check if a result exists and its content matches its checksum. A damaged result is deleted.
+	 * 
+	 * @param file		The file of the result.
+	 * @return			True if the result can be used, false otherwise.
+	 */
+	private boolean isValid(File file)
+	{
+		File checksum = new File(file.getPath() + CHECKSUM);
+		if(!file.exists() || !checksum.exists()){
+			return false;
+		}
+		try{
+			long expected = Long.parseLong(new String(Files.readAllBytes(checksum.toPath()), "US-ASCII").trim());
+			if(expected == checksum(file)){
+				return true;
+			}
+		}
+		catch(Exception e){
+			//The result is treated as damaged.
+		}
+		reportProblem(file);
+		file.delete();
+		checksum.delete();
+		
+		return false;
+	}
+	
+	/**
+	 * Returns the CRC-32 checksum of a file.
+	 * 
+	 * @param file				A file.
+	 * @return					The checksum of the file.
+	 * @throws IOException		If the file cannot be read.
+	 */
+	private long checksum(File file) throws IOException
+	{
+		CRC32 crc = new CRC32();
+		crc.update(Files.readAllBytes(file.toPath()));
+		
+		return crc.getValue();
+	}
+	
+	/**
+	 * Delete the results used least recently until the cache takes no more than its maximum size. The 
+	 * result just written is never deleted.
+	 * 
+	 * @param kept		The file of the result just written.
+	 */
+	private void evict(File kept)
+	{
+		File[] files = directory.listFiles();
+		if(files == null){
+			return;
+		}
+		long size = 0;
+		for(int i = 0; i < files.length; i++){
+			size += files[i].length();
+		}
+		
+		Arrays.sort(files, new Comparator<File>(){
+			public int compare(File a, File b)
+			{
+				return Long.compare(a.lastModified(), b.lastModified());
+			}
+		});
+		for(int i = 0; i < files.length && size > maxSize; i++){
+			String name = files[i].getName();
+			boolean isResult = name.endsWith(COUNT) || name.endsWith(SOLUTIONS);
+			if(isResult && !files[i].equals(kept)){
+				File checksum = new File(files[i].getPath() + CHECKSUM);
+				size -= files[i].length() + checksum.length();
+				files[i].delete();
+				checksum.delete();
+			}
+		}
+	}
+	
+	/**
+	 * Write a problem with the cache to the log.
+	 * 
+	 * @param file		The file of the result.
+	 */
+	private void reportProblem(File file)
+	{
+		String cacheProblem = "Warning: The cached result " + "\"" + file.getName() + "\"" + " cannot be used.";
+		outputManager.writeInLog(cacheProblem, false);
+	}
+}
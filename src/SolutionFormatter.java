@@ -0,0 +1,152 @@
+/**
+ * It represents a writer of solutions in algebraic notation ("a2 b4 c1 d3 "). The line is built in a 
+ * reusable array of characters with the letters of the columns and the numbers of the rows prepared in 
+ * advance, so formatting a solution does not create any object.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class SolutionFormatter 
+{
+	private static final int PREFIX_LENGTH = 80;	//Room for the text written before the solution.
+	
+	private int n;					//Save the board size.
+	private char[][] letters;		//Save the letters of every column.
+	private char[][] numbers;		//Save the digits of every row, from 1 to n.
+	private char[] buffer;			//Save the line being built.
+	private int length;				//Save the length of the line.
+	
+	/**
+	 * Constructor for SolutionFormatter in which the board size is passed as a parameter.
+	 * 
+	 * @param n		The size of the board.
+	 */
+	public SolutionFormatter(int n)
+	{
+		this.n = n;
+		letters = new char[n][];
+		numbers = new char[n + 1][];
+		int solutionLength = 0;
+		for(int i = 0; i < n; i++){
+			letters[i] = columnName(i).toCharArray();		//Column a is the first column of the board.
+			numbers[i + 1] = Integer.toString(i + 1).toCharArray();
+			solutionLength += letters[i].length + numbers[i + 1].length + 1;
+		}
+		buffer = new char[PREFIX_LENGTH + solutionLength];
+		length = 0;
+	}
+	
+	/**
+	 * Returns the size of the board.
+	 * 
+	 * @return	The size of the board.
+	 */
+	public int getN()
+	{
+		return n;
+	}
+	
+	/**
+	 * Returns the array with the line being built. Only the first length() characters are valid.
+	 * 
+	 * @return	The array with the line.
+	 */
+	public char[] getBuffer()
+	{
+		return buffer;
+	}
+	
+	/**
+	 * Returns the length of the line being built.
+	 * 
+	 * @return	The length of the line.
+	 */
+	public int length()
+	{
+		return length;
+	}
+	
+	/**
+	 * Start a new line.
+	 */
+	public void clear()
+	{
+		length = 0;
+	}
+	
+	/**
+	 * Add a text to the line.
+	 * 
+	 * @param text	An array of characters.
+	 */
+	public void append(char[] text)
+	{
+		System.arraycopy(text, 0, buffer, length, text.length);
+		length += text.length;
+	}
+	
+	/**
+	 * Add a non-negative number to the line.
+	 * 
+	 * @param value		A number greater than or equal to 0.
+	 */
+	public void appendNumber(long value)
+	{
+		int digits = 1;
+		for(long aux = value / 10; aux > 0; aux /= 10){
+			digits++;
+		}
+		for(int i = length + digits - 1; i >= length; i--){
+			buffer[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		length += digits;
+	}
+	
+	/**
+	 * Add the positions of a solution to the line, each followed by a space.
+	 * 
+	 * @param s		A vector of integers is the solution to the problem.
+	 */
+	public void appendSolution(int[] s)
+	{
+		for(int i = 0; i < n; i++){
+			char[] letter = letters[i];
+			for(int j = 0; j < letter.length; j++){
+				buffer[length++] = letter[j];
+			}
+			char[] number = numbers[s[i]];
+			for(int j = 0; j < number.length; j++){
+				buffer[length++] = number[j];
+			}
+			buffer[length++] = ' ';
+		}
+	}
+	
+	/**
+	 * Returns the name of a column: a to z for the first 26 columns, then aa, ab and so on, as in 
+	 * the columns of a spreadsheet.
+	 * 
+	 * @param column	The column, 0 for the first one.
+	 * @return			The name of the column.
+	 */
+	public static String columnName(int column)
+	{
+		StringBuilder name = new StringBuilder();
+		for(int i = column + 1; i > 0; i = (i - 1) / 26){
+			name.insert(0, (char) ('a' + (i - 1) % 26));
+		}
+		
+		return name.toString();
+	}
+	
+	/**
+	 * Returns the line built as a String.
+	 * 
+	 * @return	The line built.
+	 */
+	public String toString()
+	{
+		return new String(buffer, 0, length);
+	}
+}
@@ -0,0 +1,192 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * It represents the solutions to the problem as an iterator. The search advances only when the next
+ * solution is requested, and its state is kept between calls in an explicit stack of bit masks, as in
+ * IterativeEngine, so a caller that stops after some solutions does not pay for the rest. The solutions
+ * come in the same order as in the list of solutions. Bit i of each mask represents row i + 1.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class SolutionIterator implements Iterator<int[]>
+{
+	private int n;				//Save the size of the board.
+	private int mask;			//Save a mask with the n rows of the board.
+	private int base;			//Save the first column explored, the previous ones are fixed.
+	private int k;				//Save the column being explored, base - 1 when the search has ended.
+	private int[] s;			//Save the rows of the queens placed.
+	private int[] rows;			//Save the rows occupied before each column.
+	private int[] ld;			//Save the rows attacked in each column by the ascending diagonals.
+	private int[] rd;			//Save the rows attacked in each column by the descending diagonals.
+	private int[] free;			//Save the rows of each column that are still to be tried.
+	private boolean isReady;	//Save whether s holds a solution that has not been returned yet.
+	
+	/**
+	 * Constructor for SolutionIterator in which the size of the board is passed as a parameter.
+	 * 
+	 * @param n		The size of the board.
+	 */
+	public SolutionIterator(int n)
+	{
+		if(n > BitmaskEngine.MAX_N){
+			throw new IllegalArgumentException("The board size cannot be greater than " + BitmaskEngine.MAX_N + ".");
+		}
+		this.n = Math.max(n, 0);
+		mask = (1 << this.n) - 1;
+		base = 0;
+		k = 0;
+		s = new int[this.n];
+		rows = new int[this.n];
+		ld = new int[this.n];
+		rd = new int[this.n];
+		free = new int[this.n];
+		isReady = false;
+		if(this.n == 0){	//There is nothing to search.
+			k = -1;
+		}
+		else{
+			free[0] = mask;
+		}
+	}
+	
+	/**
+	 * Returns the size of the board.
+	 * 
+	 * @return	The size of the board.
+	 */
+	public int getN()
+	{
+		return n;
+	}
+	
+	/**
+	 * Returns whether there are more solutions. The search advances to the next solution if needed.
+	 * 
+	 * @return	True if there are more solutions, false otherwise.
+	 */
+	public boolean hasNext()
+	{
+		if(!isReady){
+			isReady = advance();
+		}
+		
+		return isReady;
+	}
+	
+	/**
+	 * Returns the next solution, in a new array that belongs to the caller.
+	 * 
+	 * @return	The rows of the queens, the first one for column a.
+	 */
+	public int[] next()
+	{
+		if(!hasNext()){
+			throw new NoSuchElementException();
+		}
+		isReady = false;
+		
+		return s.clone();
+	}
+	
+	/**
+	 * Split the solutions that are still to be found in two parts. The iterator returned keeps the first
+	 * part, including the solution not returned yet and the branch being explored, and this iterator
+	 * keeps the rest. The split is made in the first column that still has rows to try, leaving at least
+	 * four columns to explore so that the parts are not too small.
+	 * 
+	 * @return	An iterator with the first part of the solutions, or null if they cannot be split.
+	 */
+	public SolutionIterator trySplit()
+	{
+		for(int d = base; d <= k && d < n - 3; d++){
+			int rest = free[d];
+			//Below the current column a branch is being explored and it stays in the first part, so one 
+			//row to try is enough to split. In the current column two rows are needed.
+			if(Integer.bitCount(rest) >= (d < k ? 1 : 2)){
+				int keep = Integer.bitCount(rest) / 2;		//The rows that stay in the first part.
+				int second = rest;
+				for(int i = 0; i < keep; i++){
+					second &= second - 1;		//Remove the lowest row.
+				}
+				SolutionIterator first = copy();
+				first.free[d] = rest & ~second;
+				restart(d, second);
+				
+				return first;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Find the next solution.
+	 * 
+	 * @return	True if a solution has been found, false if the search has ended.
+	 */
+	private boolean advance()
+	{
+		while(k >= base){
+			if(free[k] == 0){		//All the rows of the column have been tried.
+				k--;
+			}
+			else{
+				int bit = free[k] & -free[k];		//The lowest free row.
+				free[k] ^= bit;
+				s[k] = Integer.numberOfTrailingZeros(bit) + 1;
+				if(k == n - 1){		//All the queens are placed.
+					return true;
+				}
+				int nextRows = rows[k] | bit;
+				int nextLd = (ld[k] | bit) << 1;
+				int nextRd = (rd[k] | bit) >>> 1;
+				k++;
+				rows[k] = nextRows;
+				ld[k] = nextLd;
+				rd[k] = nextRd;
+				free[k] = ~(nextRows | nextLd | nextRd) & mask;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Returns a copy of this iterator, with the same state.
+	 * 
+	 * @return	A copy of this iterator.
+	 */
+	private SolutionIterator copy()
+	{
+		SolutionIterator copy = new SolutionIterator(0);
+		copy.n = n;
+		copy.mask = mask;
+		copy.base = base;
+		copy.k = k;
+		copy.s = s.clone();
+		copy.rows = rows.clone();
+		copy.ld = ld.clone();
+		copy.rd = rd.clone();
+		copy.free = free.clone();
+		copy.isReady = isReady;
+		
+		return copy;
+	}
+	
+	/**
+	 * Start the search again from a column, keeping the queens placed before it and trying only
+	 * the given rows.
+	 * 
+	 * @param column	The first column explored.
+	 * @param rowsToTry	The rows of the column to try.
+	 */
+	private void restart(int column, int rowsToTry)
+	{
+		base = column;
+		k = column;
+		free[column] = rowsToTry;
+		isReady = false;
+	}
+}
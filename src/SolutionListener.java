@@ -0,0 +1,24 @@
+/**
+ * It represents the receiver of the positions that a solver engine finds while exploring the board.
+ * The array passed to both methods is the engine's working array, so it must be copied if it is kept.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public interface SolutionListener 
+{
+	/**
+	 * Process a complete solution to the problem.
+	 * 
+	 * @param s		A vector of integers is the solution to the problem.
+	 */
+	void accept(int[] s);
+	
+	/**
+	 * Process a position of the last column tried by the engine. It is only called when the 
+	 * trace is required.
+	 * 
+	 * @param s		A vector of integers with the position tried.
+	 */
+	void reject(int[] s);
+}
@@ -0,0 +1,29 @@
+/**
+ * It represents the destination of the solutions to the problem. The solutions are written one by 
+ * one as they are found, so they do not need to be kept in memory.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public interface SolutionSink 
+{
+	/**
+	 * Write a line with a solution or a message about the problem.
+	 * 
+	 * @param line	The line to write.
+	 */
+	void write(String line);
+	
+	/**
+	 * Write a line stored in an array of characters. The array can be reused after the call.
+	 * 
+	 * @param line		An array with the line to write.
+	 * @param length	The number of characters of the line.
+	 */
+	void write(char[] line, int length);
+	
+	/**
+	 * Write the lines that are still pending and release the destination.
+	 */
+	void close();
+}
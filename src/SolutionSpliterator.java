@@ -0,0 +1,104 @@
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * It represents the solutions to the problem as a spliterator, so they can be processed with a stream, 
+ * in parallel too. Each part is searched by a SolutionIterator only when its solutions are requested, 
+ * and the parts keep the order of the list of solutions.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class SolutionSpliterator implements Spliterator<int[]>
+{
+	private SolutionIterator iterator;		//Save the search of the solutions of this part.
+	private long estimate;					//Save the estimated number of solutions of this part.
+	
+	/**
+	 * Constructor for SolutionSpliterator in which the size of the board is passed as a parameter.
+	 * 
+	 * @param n		The size of the board.
+	 */
+	public SolutionSpliterator(int n)
+	{
+		this(new SolutionIterator(n), Long.MAX_VALUE);
+	}
+	
+	/**
+	 * Constructor for SolutionSpliterator in which the search of the solutions and their estimated 
+	 * number are passed as parameters.
+	 * 
+	 * @param iterator		The search of the solutions.
+	 * @param estimate		The estimated number of solutions, Long.MAX_VALUE if it is unknown.
+	 */
+	private SolutionSpliterator(SolutionIterator iterator, long estimate)
+	{
+		this.iterator = iterator;
+		this.estimate = estimate;
+	}
+	
+	/**
+	 * Pass the next solution to an action, if there is one.
+	 * 
+	 * @param action	The action that receives the solution.
+	 * @return			True if there was a solution, false otherwise.
+	 */
+	public boolean tryAdvance(Consumer<? super int[]> action)
+	{
+		if(!iterator.hasNext()){
+			return false;
+		}
+		action.accept(iterator.next());
+		
+		return true;
+	}
+	
+	/**
+	 * Pass all the remaining solutions to an action.
+	 * 
+	 * @param action	The action that receives the solutions.
+	 */
+	public void forEachRemaining(Consumer<? super int[]> action)
+	{
+		while(iterator.hasNext()){
+			action.accept(iterator.next());
+		}
+	}
+	
+	/**
+	 * Split the solutions in two parts. The part returned comes before the one kept.
+	 * 
+	 * @return	A spliterator with the first part, or null if the solutions cannot be split.
+	 */
+	public Spliterator<int[]> trySplit()
+	{
+		SolutionIterator first = iterator.trySplit();
+		if(first == null){
+			return null;
+		}
+		estimate = estimate >>> 1;
+		
+		return new SolutionSpliterator(first, estimate);
+	}
+	
+	/**
+	 * Returns the estimated number of solutions. It is unknown before the search, and every split 
+	 * halves it.
+	 * 
+	 * @return	The estimated number of solutions.
+	 */
+	public long estimateSize()
+	{
+		return estimate;
+	}
+	
+	/**
+	 * Returns the characteristics of the solutions: they are ordered, different and never null.
+	 * 
+	 * @return	The characteristics of the solutions.
+	 */
+	public int characteristics()
+	{
+		return ORDERED | DISTINCT | NONNULL;
+	}
+}
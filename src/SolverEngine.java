@@ -0,0 +1,29 @@
+/**
+ * It represents an algorithm that solves the eight queens problem generalized to n queens on an 
+ * n x n board. Every engine must report the solutions in the same order, that is, sorted by the 
+ * row of column a, then by the row of column b, and so on.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public interface SolverEngine 
+{
+	/**
+	 * Find all solutions to the problem and pass them to a listener. If the trace is required, 
+	 * every position tried in the last column is also passed to the listener.
+	 * 
+	 * @param s			A vector of integers, solution to the problem.
+	 * @param n			A positive integer that is the size of the board.
+	 * @param isTrace	True if the trace is required, false otherwise.
+	 * @param listener	The receiver of the solutions and the positions tried.
+	 */
+	void queens(int[] s, int n, boolean isTrace, SolutionListener listener);
+	
+	/**
+	 * Count the solutions to the problem without building them.
+	 * 
+	 * @param n		A positive integer that is the size of the board.
+	 * @return		The number of solutions.
+	 */
+	long count(int n);
+}
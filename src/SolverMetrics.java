@@ -0,0 +1,255 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * It represents the measures of the last search of the problem: the positions visited, the positions
+ * rejected in every column because a queen already placed attacks them, the solutions found and the
+ * time spent. They can be written as a summary line for the log or as a JSON file.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class SolverMetrics
+{
+	private int n;						//Save the size of the board.
+	private long nodes;					//Save the number of positions visited, one for every queen placed.
+	private long[] rejections;			//Save the number of positions rejected in every column.
+	private long solutions;				//Save the number of solutions found.
+	private long firstSolutionTime;		//Save the nanoseconds until the first solution, -1 if there is none.
+	private long totalTime;				//Save the nanoseconds of the whole search.
+	private int searches;				//Save the number of searches measured.
+	
+	/**
+	 * Default constructor for SolverMetrics.
+	 */
+	public SolverMetrics()
+	{
+		n = 0;
+		nodes = 0;
+		rejections = new long[0];
+		solutions = 0;
+		firstSolutionTime = -1;
+		totalTime = 0;
+		searches = 0;
+	}
+	
+	/**
+	 * Returns the size of the board.
+	 * 
+	 * @return	The size of the board.
+	 */
+	public int getN()
+	{
+		return n;
+	}
+	
+	/**
+	 * Returns the number of positions visited, one for every queen placed.
+	 * 
+	 * @return	The number of positions visited.
+	 */
+	public long getNodes()
+	{
+		return nodes;
+	}
+	
+	/**
+	 * Returns the number of positions rejected in every column.
+	 * 
+	 * @return	The number of positions rejected, the first one for column a.
+	 */
+	public long[] getRejections()
+	{
+		return rejections;
+	}
+	
+	/**
+	 * Returns the number of solutions found.
+	 * 
+	 * @return	The number of solutions found.
+	 */
+	public long getSolutions()
+	{
+		return solutions;
+	}
+	
+	/**
+	 * Returns the nanoseconds until the first solution was found.
+	 * 
+	 * @return	The nanoseconds until the first solution, -1 if there is none.
+	 */
+	public long getFirstSolutionTime()
+	{
+		return firstSolutionTime;
+	}
+	
+	/**
+	 * Returns the nanoseconds of the whole search.
+	 * 
+	 * @return	The nanoseconds of the whole search.
+	 */
+	public long getTotalTime()
+	{
+		return totalTime;
+	}
+	
+	/**
+	 * Returns the number of searches measured.
+	 * 
+	 * @return	The number of searches measured.
+	 */
+	public int getSearches()
+	{
+		return searches;
+	}
+	
+	/**
+	 * Save the measures of a search, replacing the previous ones.
+	 * 
+	 * @param n						The size of the board.
+	 * @param nodes					The number of positions visited.
+	 * @param rejections			The number of positions rejected in every column.
+	 * @param solutions				The number of solutions found.
+	 * @param firstSolutionTime		The nanoseconds until the first solution, -1 if there is none.
+	 * @param totalTime				The nanoseconds of the whole search.
+	 */
+	public void record(int n, long nodes, long[] rejections, long solutions, long firstSolutionTime, long totalTime)
+	{
+		this.n = n;
+		this.nodes = nodes;
+		this.rejections = rejections.clone();
+		this.solutions = solutions;
+		this.firstSolutionTime = firstSolutionTime;
+		this.totalTime = totalTime;
+		searches++;
+	}
+	
+	/**
+	 * Returns the total number of positions rejected.
+	 * 
+	 * @return	The total number of positions rejected.
+	 */
+	public long getTotalRejections()
+	{
+		long total = 0;
+		for(int i = 0; i < rejections.length; i++){
+			total += rejections[i];
+		}
+		
+		return total;
+	}
+	
+	/**
+	 * Returns the share of the positions tried that were rejected.
+	 * 
+	 * @return	A value between 0 and 1.
+	 */
+	public double getPruningRatio()
+	{
+		long rejected = getTotalRejections();
+		if(nodes + rejected == 0){
+			return 0;
+		}
+		
+		return (double) rejected / (nodes + rejected);
+	}
+	
+	/**
+	 * Returns a line that summarizes the measures, to be written in the log.
+	 * 
+	 * @return	The summary of the measures.
+	 */
+	public String getSummary()
+	{
+		StringBuilder summary = new StringBuilder();
+		summary.append("Metrics for n = ").append(n).append(": ");
+		summary.append(nodes).append(" positions visited, ");
+		summary.append(getTotalRejections()).append(" rejected (");
+		summary.append(format(getPruningRatio() * 100, 1)).append(" % pruned), ");
+		summary.append(solutions).append(" solutions, first solution ");
+		if(firstSolutionTime < 0){
+			summary.append("not found, ");
+		}
+		else{
+			summary.append("after ").append(format(firstSolutionTime / 1e6, 3)).append(" ms, ");
+		}
+		summary.append("total time ").append(format(totalTime / 1e6, 3)).append(" ms. Rejected per column: ");
+		for(int i = 0; i < rejections.length; i++){
+			if(i > 0){
+				summary.append(", ");
+			}
+			summary.append(SolutionFormatter.columnName(i)).append(" = ").append(rejections[i]);
+		}
+		summary.append('.');
+		
+		return summary.toString();
+	}
+	
+	/**
+	 * Returns the measures in JSON format.
+	 * 
+	 * @return	A JSON object with the measures.
+	 */
+	public String toJson()
+	{
+		StringBuilder json = new StringBuilder();
+		json.append("{\n");
+		json.append("  \"n\": ").append(n).append(",\n");
+		json.append("  \"nodes\": ").append(nodes).append(",\n");
+		json.append("  \"rejections\": ").append(getTotalRejections()).append(",\n");
+		json.append("  \"rejectionsPerColumn\": [");
+		for(int i = 0; i < rejections.length; i++){
+			if(i > 0){
+				json.append(", ");
+			}
+			json.append(rejections[i]);
+		}
+		json.append("],\n");
+		json.append("  \"pruningRatio\": ").append(format(getPruningRatio(), 6)).append(",\n");
+		json.append("  \"solutions\": ").append(solutions).append(",\n");
+		json.append("  \"firstSolutionMs\": ");
+		if(firstSolutionTime < 0){
+			json.append("null");
+		}
+		else{
+			json.append(format(firstSolutionTime / 1e6, 6));
+		}
+		json.append(",\n");
+		json.append("  \"totalMs\": ").append(format(totalTime / 1e6, 6)).append("\n");
+		json.append("}\n");
+		
+		return json.toString();
+	}
+	
+	/**
+	 * Write the measures in JSON format to a file, replacing it if it exists.
+	 * 
+	 * @param file				The name of the file.
+	 * @throws IOException		If the file cannot be written.
+	 */
+	public void writeJson(String file) throws IOException
+	{
+		BufferedWriter out = new BufferedWriter(new FileWriter(new File(file)));
+		try{
+			out.write(toJson());
+		}
+		finally{
+			out.close();
+		}
+	}
+	
+	/**
+	 * Returns a number with the given decimals and a point as the decimal separator.
+	 * 
+	 * @param value			The number.
+	 * @param decimals		The number of decimals.
+	 * @return				The number as text.
+	 */
+	private static String format(double value, int decimals)
+	{
+		return String.format(Locale.ROOT, "%." + decimals + "f", value);
+	}
+}
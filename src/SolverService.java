@@ -0,0 +1,538 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * It represents a service that answers queries about the problem over HTTP on the loopback interface,
+ * so the engine, the cache and the results already computed stay in memory between queries. Every
+ * connection is served by a thread of a pool. The queries are:
+ * 
+ * GET /count?n=12				The number of solutions.
+ * GET /solutions?n=8			All the solutions, in the format of the list of solutions.
+ * GET /solutions?n=8&k=3		The first k solutions.
+ * GET /solution?n=8&i=5		The solution i, starting at 1.
+ * 
+ * The solutions are read from the cache when they are kept there, and searched with the engine otherwise.
+ * They are written as they are found, in chunks, so the first ones arrive before the search ends.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class SolverService
+{
+	private static final char[] NUMBER_SEPARATOR = ": ".toCharArray();
+	
+	private int port;								//Save the port of the service.
+	private SolverEngine engine;					//Save the engine that finds and counts the solutions.
+	private SolutionCache cache;					//Save the results of previous executions, null if not used.
+	private OutputManager outputManager;			//Save the output manager that writes in the log.
+	private Map<Integer, Long> counts;				//Save the number of solutions of every board size counted.
+	private Map<Integer, BinarySolutionReader> readers;	//Save the solutions of the cache already opened.
+	private ConcurrentHashMap<Integer, Object> locks;	//Save the lock of every board size queried.
+	private HttpServer server;						//Save the HTTP server, null if it is stopped.
+	private ExecutorService executor;				//Save the threads that serve the connections.
+	
+	/**
+	 * Constructor for SolverService.
+	 * 
+	 * @param port				The port of the service.
+	 * @param engine			The engine that finds and counts the solutions. It must be able to stop 
+	 * 							when the listener throws an exception, so ParallelEngine is not valid.
+	 * @param cache				The results of previous executions, null if they are not used.
+	 * @param outputManager		The output manager that writes in the log.
+	 */
+	public SolverService(int port, SolverEngine engine, SolutionCache cache, OutputManager outputManager)
+	{
+		this.port = port;
+		this.engine = engine;
+		this.cache = cache;
+		this.outputManager = outputManager;
+		counts = new ConcurrentHashMap<Integer, Long>();
+		readers = new ConcurrentHashMap<Integer, BinarySolutionReader>();
+		locks = new ConcurrentHashMap<Integer, Object>();
+		server = null;
+		executor = null;
+	}
+	
+	/**
+	 * Returns the port of the service.
+	 * 
+	 * @return	The port of the service.
+	 */
+	public int getPort()
+	{
+		return port;
+	}
+	
+	/**
+	 * Start answering queries. The method returns at once and the service runs in its own threads.
+	 * 
+	 * @throws IOException		If the port cannot be used.
+	 */
+	public void start() throws IOException
+	{
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		executor = Executors.newCachedThreadPool();
+		server.setExecutor(executor);
+		server.createContext("/count", new Handler(){
+			void answer(HttpExchange exchange, Map<String, String> query) throws IOException
+			{
+				answerCount(exchange, query);
+			}
+		});
+		server.createContext("/solutions", new Handler(){
+			void answer(HttpExchange exchange, Map<String, String> query) throws IOException
+			{
+				answerSolutions(exchange, query);
+			}
+		});
+		server.createContext("/solution", new Handler(){
+			void answer(HttpExchange exchange, Map<String, String> query) throws IOException
+			{
+				answerSolution(exchange, query);
+			}
+		});
+		server.start();
+		port = server.getAddress().getPort();
+		outputManager.writeInLog("Information: The service is listening on http://localhost:" + port + "/.", true);
+	}
+	
+	/**
+	 * Stop answering queries, waiting at most one second for the ones being answered.
+	 */
+	public void stop()
+	{
+		if(server != null){
+			server.stop(1);
+			executor.shutdownNow();
+			server = null;
+			executor = null;
+			outputManager.writeInLog("Information: The service has been stopped.", false);
+		}
+	}
+	
+	/**
+	 * Answer a query for the number of solutions.
+	 * 
+	 * @param exchange			The query and its answer.
+	 * @param query				The parameters of the query.
+	 * @throws IOException		If the answer cannot be sent.
+	 */
+	private void answerCount(HttpExchange exchange, Map<String, String> query) throws IOException
+	{
+		int n = (int) parameter(query, "n", 1, ProblemManager.MAX_COUNT_N);
+		Writer out = open(exchange);
+		out.write(Long.toString(count(n)));
+		out.write('\n');
+		out.close();
+	}
+	
+	/**
+	 * Answer a query for all the solutions or the first k of them, writing them as they are read from 
+	 * the cache or found by the engine.
+	 * 
+	 * @param exchange			The query and its answer.
+	 * @param query				The parameters of the query.
+	 * @throws IOException		If the answer cannot be sent, for example because the client has left.
+	 */
+	private void answerSolutions(HttpExchange exchange, Map<String, String> query) throws IOException
+	{
+		int n = (int) parameter(query, "n", 1, ProblemManager.MAX_COUNT_N);
+		long k = query.containsKey("k") ? parameter(query, "k", 1, Long.MAX_VALUE) : Long.MAX_VALUE;
+		SolutionFormatter formatter = new SolutionFormatter(n);
+		BinarySolutionReader reader = reader(n);
+		Writer out = open(exchange);
+		long i = 0;
+		if(reader != null){
+			int[] s = new int[n];
+			while(i < k && i < reader.size()){
+				reader.get(i, s);
+				i++;
+				writeSolution(out, formatter, i, s);
+			}
+		}
+		else{
+			i = search(n, new Listing(k, out, formatter)).found;
+		}
+		if(i == 0){
+			out.write("The problem for n = " + n + " has no solution.\n");
+		}
+		out.close();
+	}
+	
+	/**
+	 * Answer a query for one solution. It is read from the cache when the solutions are kept there, and
+	 * searched otherwise.
+	 * 
+	 * @param exchange			The query and its answer.
+	 * @param query				The parameters of the query.
+	 * @throws IOException		If the answer cannot be sent.
+	 */
+	private void answerSolution(HttpExchange exchange, Map<String, String> query) throws IOException
+	{
+		int n = (int) parameter(query, "n", 1, ProblemManager.MAX_COUNT_N);
+		long i = parameter(query, "i", 1, Long.MAX_VALUE);
+		int[] s = null;
+		BinarySolutionReader reader = reader(n);
+		if(reader != null){
+			if(i <= reader.size()){
+				s = new int[n];
+				reader.get(i - 1, s);
+			}
+		}
+		else{
+			s = search(n, new Listing(i, null, null)).last;
+		}
+		if(s == null){
+			throw new IllegalArgumentException("The problem for n = " + n + " has less than " + i + " solutions.");
+		}
+		Writer out = open(exchange);
+		writeSolution(out, new SolutionFormatter(n), i, s);
+		out.close();
+	}
+	
+	/**
+	 * Search the solutions of a board size with the engine until the listing stops it.
+	 * 
+	 * @param n					The size of the board.
+	 * @param listing			The receiver of the solutions.
+	 * @return					The listing.
+	 * @throws IOException		If the solutions cannot be sent.
+	 */
+	private Listing search(int n, Listing listing) throws IOException
+	{
+		try{
+			engine.queens(new int[n], n, false, listing);
+		}
+		catch(ListingStopped e){
+			//The listing has enough solutions or cannot send them.
+		}
+		if(listing.error != null){
+			throw listing.error;
+		}
+		
+		return listing;
+	}
+	
+	/**
+	 * Returns the number of solutions for a board size. It is taken from memory or from the cache if it
+	 * has been counted before. Only the queries for the same board size wait for each other, so that it 
+	 * is counted once; the engines of the service keep no state between counts, so different sizes are 
+	 * counted at the same time.
+	 * 
+	 * @param n		The size of the board.
+	 * @return		The number of solutions.
+	 */
+	private long count(int n)
+	{
+		Long count = counts.get(n);
+		if(count == null){
+			synchronized(lock(n)){
+				count = counts.get(n);
+				if(count == null){
+					long[] cached = (cache != null) ? cache.getCount(n, SolutionCache.ALL) : null;
+					if(cached != null){
+						count = cached[0];
+					}
+					else{
+						count = engine.count(n);
+						if(cache != null){
+							cache.putCount(n, SolutionCache.ALL, count, count);
+						}
+					}
+					counts.put(n, count);
+				}
+			}
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * Returns the solutions kept in the cache for a board size, opening them only the first time.
+	 * 
+	 * @param n		The size of the board.
+	 * @return		A reader of the solutions, or null if they are not kept.
+	 */
+	private BinarySolutionReader reader(int n)
+	{
+		BinarySolutionReader reader = readers.get(n);
+		if(reader == null && cache != null){
+			synchronized(lock(n)){
+				reader = readers.get(n);
+				if(reader == null){
+					reader = cache.getSolutions(n, SolutionCache.ALL);
+					if(reader != null){
+						readers.put(n, reader);
+					}
+				}
+			}
+		}
+		
+		return reader;
+	}
+	
+	/**
+	 * Returns the lock of a board size, creating it the first time.
+	 * 
+	 * @param n		The size of the board.
+	 * @return		The lock of the board size.
+	 */
+	private Object lock(int n)
+	{
+		Object lock = locks.get(n);
+		if(lock == null){
+			locks.putIfAbsent(n, new Object());
+			lock = locks.get(n);
+		}
+		
+		return lock;
+	}
+	
+	/**
+	 * Send the headers of a successful answer of unknown length, so that it is sent in chunks.
+	 * 
+	 * @param exchange			The query and its answer.
+	 * @return					The writer of the body of the answer.
+	 * @throws IOException		If the headers cannot be sent.
+	 */
+	private static Writer open(HttpExchange exchange) throws IOException
+	{
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=US-ASCII");
+		exchange.sendResponseHeaders(200, 0);
+		
+		return new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.US_ASCII));
+	}
+	
+	/**
+	 * Write a numbered solution as a line of the list of solutions.
+	 * 
+	 * @param out				The writer of the answer.
+	 * @param formatter			The writer of the solutions in algebraic notation.
+	 * @param i					The number of the solution.
+	 * @param s					The solution.
+	 * @throws IOException		If the solution cannot be sent.
+	 */
+	private static void writeSolution(Writer out, SolutionFormatter formatter, long i, int[] s) throws IOException
+	{
+		formatter.clear();
+		formatter.appendNumber(i);
+		formatter.append(NUMBER_SEPARATOR);
+		formatter.appendSolution(s);
+		out.write(formatter.getBuffer(), 0, formatter.length());
+		out.write('\n');
+	}
+	
+	/**
+	 * Returns a whole number of the query, checking that it is within the limits.
+	 * 
+	 * @param query		The parameters of the query.
+	 * @param name		The name of the parameter.
+	 * @param min		The smallest value allowed.
+	 * @param max		The largest value allowed.
+	 * @return			The value of the parameter.
+	 */
+	private static long parameter(Map<String, String> query, String name, long min, long max)
+	{
+		String text = query.get(name);
+		if(text == null){
+			throw new IllegalArgumentException("The parameter " + name + " is missing.");
+		}
+		long value;
+		try{
+			value = Long.parseLong(text);
+		}
+		catch(NumberFormatException e){
+			throw new IllegalArgumentException("The parameter " + name + " must be a whole number.");
+		}
+		if(value < min || value > max){
+			throw new IllegalArgumentException("The parameter " + name + " must be between " + min + " and " +
+					max + ".");
+		}
+		
+		return value;
+	}
+	
+	/**
+	 * Returns the parameters of the query of a URI ("n=8&k=3").
+	 * 
+	 * @param rawQuery		The query of the URI, null if there is none.
+	 * @return				The value of every parameter.
+	 */
+	private static Map<String, String> parseQuery(String rawQuery)
+	{
+		Map<String, String> query = new HashMap<String, String>();
+		if(rawQuery != null){
+			String[] pairs = rawQuery.split("&");
+			for(int i = 0; i < pairs.length; i++){
+				int equals = pairs[i].indexOf('=');
+				if(equals > 0){
+					query.put(pairs[i].substring(0, equals), pairs[i].substring(equals + 1));
+				}
+			}
+		}
+		
+		return query;
+	}
+	
+	/**
+	 * Receives the solutions found by the engine for a query, writing them if there is a writer and 
+	 * keeping the last one otherwise, and stops the search after the limit.
+	 */
+	private static class Listing implements SolutionListener
+	{
+		private long limit;						//Save the number of solutions after which the search stops.
+		private Writer out;						//Save the writer of the answer, null to keep the last solution.
+		private SolutionFormatter formatter;	//Save the writer of the solutions in algebraic notation.
+		private long found;						//Save the number of solutions received.
+		private int[] last;						//Save the last solution received, null if there is none.
+		private IOException error;				//Save the problem sending the solutions, null if there is none.
+		
+		/**
+		 * Constructor for Listing.
+		 * 
+		 * @param limit			The number of solutions after which the search stops.
+		 * @param out			The writer of the answer, null to keep the last solution instead.
+		 * @param formatter		The writer of the solutions in algebraic notation, null if there is no writer.
+		 */
+		Listing(long limit, Writer out, SolutionFormatter formatter)
+		{
+			this.limit = limit;
+			this.out = out;
+			this.formatter = formatter;
+			found = 0;
+			last = null;
+			error = null;
+		}
+		
+		/**
+		 * Receive a solution to the problem.
+		 * 
+		 * @param s		A vector of integers is the solution to the problem.
+		 */
+		public void accept(int[] s)
+		{
+			found++;
+			if(out != null){
+				try{
+					writeSolution(out, formatter, found, s);
+				}
+				catch(IOException e){
+					error = e;
+					throw ListingStopped.INSTANCE;
+				}
+			}
+			else if(found == limit){
+				last = s.clone();
+			}
+			if(found >= limit){
+				throw ListingStopped.INSTANCE;
+			}
+		}
+		
+		/**
+		 * There is no trace, so no position is received.
+		 * 
+		 * @param s		An array of positive integers.
+		 */
+		public void reject(int[] s)
+		{
+		}
+	}
+	
+	/**
+	 * Signal used to leave the engine when a listing stops. It has no stack trace because it is not an 
+	 * error.
+	 */
+	private static class ListingStopped extends RuntimeException
+	{
+		private static final long serialVersionUID = 1L;
+		private static final ListingStopped INSTANCE = new ListingStopped();
+		
+		/**
+		 * Default constructor for ListingStopped.
+		 */
+		private ListingStopped()
+		{
+			super(null, null, false, false);
+		}
+	}
+	
+	/**
+	 * It represents the answer to one kind of query. The wrong queries are answered with an error 400
+	 * and the problems are written in the log.
+	 */
+	private abstract class Handler implements HttpHandler
+	{
+		/**
+		 * Answer a query.
+		 * 
+		 * @param exchange		The query and its answer.
+		 */
+		public void handle(HttpExchange exchange)
+		{
+			try{
+				if(!exchange.getRequestMethod().equals("GET")){
+					sendError(exchange, 405, "Only GET queries are accepted.");
+				}
+				else{
+					answer(exchange, parseQuery(exchange.getRequestURI().getRawQuery()));
+				}
+			}
+			catch(IllegalArgumentException e){
+				sendError(exchange, 400, e.getMessage());
+			}
+			catch(IOException e){
+				//The client has closed the connection, so the answer is abandoned.
+			}
+			catch(RuntimeException e){
+				outputManager.writeInLog("Error: The query " + exchange.getRequestURI() + " failed: " + e, false);
+				sendError(exchange, 500, "The query could not be answered.");
+			}
+			finally{
+				exchange.close();
+			}
+		}
+		
+		/**
+		 * Answer a query with the parameters already read.
+		 * 
+		 * @param exchange			The query and its answer.
+		 * @param query				The parameters of the query.
+		 * @throws IOException		If the answer cannot be sent.
+		 */
+		abstract void answer(HttpExchange exchange, Map<String, String> query) throws IOException;
+		
+		/**
+		 * Send an error, if the answer has not been started yet.
+		 * 
+		 * @param exchange		The query and its answer.
+		 * @param code			The HTTP code of the error.
+		 * @param message		The description of the error.
+		 */
+		private void sendError(HttpExchange exchange, int code, String message)
+		{
+			try{
+				byte[] body = ("Error: " + message + "\n").getBytes(StandardCharsets.US_ASCII);
+				exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=US-ASCII");
+				exchange.sendResponseHeaders(code, body.length);
+				exchange.getResponseBody().write(body);
+			}
+			catch(IOException e){
+				//The answer had already been started or the client has left.
+			}
+		}
+	}
+}
@@ -0,0 +1,242 @@
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * It represents the trace file of the application. The lines are written to blocks of memory that a 
+ * background thread writes to the file, so the trace never has to be kept whole in memory. Only one of 
+ * every few events can be kept, and the trace can be split into several files of a maximum size, keeping 
+ * only the last ones.
+ * 
+ * The files are named after the date in which the trace begins, as given by Date.insertTraceName(): the 
+ * first one is "date.txt", and the following ones "date_2.txt", "date_3.txt"...
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class TraceWriter 
+{
+	public static final int MAX_FILES = 10;			//Number of trace files kept when the trace is split.
+	
+	private static final int BLOCK_SIZE = 64 * 1024;	//Number of characters of every block.
+	private static final int BLOCKS = 4;				//Number of blocks that can wait to be written.
+	private static final CharBuffer END = CharBuffer.allocate(0);	//Marks the end of the trace.
+	private static final char[] NEW_LINE = System.lineSeparator().toCharArray();
+	
+	private String baseName;					//Save the name of the trace files without the extension.
+	private int sampling;						//Save how many events there are for every event written.
+	private long maxSize;						//Save the maximum size of a trace file, 0 if there is no limit.
+	private long events;						//Save the number of events received.
+	private CharBuffer block;					//Save the block being filled.
+	private BlockingQueue<CharBuffer> full;		//Save the blocks waiting to be written.
+	private BlockingQueue<CharBuffer> free;		//Save the blocks already written.
+	private Thread flusher;						//Save the thread that writes the blocks.
+	private volatile IOException error;			//Save the error of the thread that writes the blocks.
+	private OutputManager outputManager;		//Save the output manager that reports the errors.
+	
+	/**
+	 * Constructor for TraceWriter. The first trace file is created.
+	 * 
+	 * @param outputManager		The output manager that reports the errors.
+	 * @param sampling			Only one of every sampling events is written, 1 to write all of them.
+	 * @param maxSize			The maximum size in bytes of a trace file, 0 if there is no limit.
+	 */
+	public TraceWriter(OutputManager outputManager, int sampling, long maxSize)
+	{
+		this.outputManager = outputManager;
+		this.sampling = Math.max(sampling, 1);
+		this.maxSize = maxSize;
+		events = 0;
+		error = null;
+		baseName = new Date().insertTraceName();
+		full = new ArrayBlockingQueue<CharBuffer>(BLOCKS + 1);
+		free = new ArrayBlockingQueue<CharBuffer>(BLOCKS);
+		for(int i = 0; i < BLOCKS; i++){
+			free.add(CharBuffer.allocate(BLOCK_SIZE));
+		}
+		block = free.poll();
+		
+		flusher = new Thread("Trace writer"){
+			public void run()
+			{
+				writeBlocks();
+			}
+		};
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+	
+	/**
+	 * Returns the name of the first trace file.
+	 * 
+	 * @return	The name of the first trace file.
+	 */
+	public String getFileName()
+	{
+		return baseName + ".txt";
+	}
+	
+	/**
+	 * Returns the number of events received.
+	 * 
+	 * @return	The number of events received.
+	 */
+	public long getEvents()
+	{
+		return events;
+	}
+	
+	/**
+	 * Count a new event and return whether it must be written. It is called before building the line, 
+	 * so the events that are not written cost nothing.
+	 * 
+	 * @return	True if the event must be written, false otherwise.
+	 */
+	public boolean nextEvent()
+	{
+		return events++ % sampling == 0;
+	}
+	
+	/**
+	 * Write a line of the trace.
+	 * 
+	 * @param line		An array with the line.
+	 * @param length	The number of characters of the line.
+	 */
+	public void write(char[] line, int length)
+	{
+		if(block.remaining() < length + NEW_LINE.length){
+			pass();
+		}
+		block.put(line, 0, length);
+		block.put(NEW_LINE);
+	}
+	
+	/**
+	 * Write the lines that are still pending, wait for the trace files to be written and close them.
+	 */
+	public void close()
+	{
+		pass();
+		put(END);
+		try{
+			flusher.join();
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+		if(error != null){
+			reportError();
+		}
+		//It shows the user that the typing was successful.
+		String successTrace = "Information: Trace file successfully generated.";
+		outputManager.writeInLog(successTrace, true);
+	}
+	
+	/**
+	 * Pass the block being filled to the thread that writes the blocks and take an empty one. If all the 
+	 * blocks are waiting to be written, it waits, so the memory used is limited.
+	 */
+	private void pass()
+	{
+		if(error != null){
+			reportError();
+		}
+		block.flip();
+		put(block);
+		try{
+			block = free.take();
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+			block = CharBuffer.allocate(BLOCK_SIZE);
+		}
+		block.clear();
+	}
+	
+	/**
+	 * Add a block to the queue of blocks waiting to be written.
+	 * 
+	 * @param buffer	A block of the trace.
+	 */
+	private void put(CharBuffer buffer)
+	{
+		try{
+			full.put(buffer);
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Write the blocks to the trace files until the end of the trace. It runs in the background thread.
+	 */
+	private void writeBlocks()
+	{
+		ArrayDeque<File> files = new ArrayDeque<File>();
+		Writer out = null;
+		long size = 0;
+		int index = 1;
+		
+		try{
+			File file = new File(getFileName());
+			files.add(file);
+			out = new FileWriter(file);
+			CharBuffer buffer = full.take();
+			while(buffer != END){
+				//The blocks always end with a complete line, so the file is split between two blocks.
+				if(maxSize > 0 && size >= maxSize){
+					out.close();
+					index++;
+					file = new File(baseName + "_" + index + ".txt");
+					files.add(file);
+					if(files.size() > MAX_FILES){
+						files.poll().delete();
+					}
+					out = new FileWriter(file);
+					size = 0;
+				}
+				out.write(buffer.array(), 0, buffer.limit());
+				size += buffer.limit();
+				free.put(buffer);
+				buffer = full.take();
+			}
+		}
+		catch(IOException e){
+			error = e;
+			free.clear();
+			for(int i = 0; i < BLOCKS; i++){	//The search must not wait for this thread.
+				free.offer(CharBuffer.allocate(BLOCK_SIZE));
+			}
+		}
+		catch(InterruptedException e){
+			Thread.currentThread().interrupt();
+		}
+		finally{
+			try{
+				if(out != null){
+					out.close();
+				}
+			}
+			catch(IOException e){
+				error = e;
+			}
+		}
+	}
+	
+	/**
+	 * Inform the user of a problem with the trace file and end the application.
+	 */
+	private void reportError()
+	{
+		String traceProblem = "Error: There was a problem generating the trace file.";
+		outputManager.writeInLog(traceProblem, true);
+		System.exit(-1);
+	}
+}
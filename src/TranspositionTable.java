@@ -0,0 +1,225 @@
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * It represents a table that keeps the number of solutions that extend a state of the search, so that a
+ * state reached again by a different order of the queens already placed is not explored twice. A state is
+ * given by the rows occupied and the rows attacked in the next column by both diagonals; the column is the
+ * number of rows occupied, so it is not part of the key.
+ * 
+ * The table uses open addressing over primitive arrays sized once for a memory budget. Every position of
+ * the hash has a bucket of two entries: the first one keeps the state with more columns left to explore,
+ * whose count cost more, and the second one is always replaced. The lookups, hits, stores and evictions
+ * are counted to tune the budget.
+ * 
+ * @author  Roberto Castillejo Embid.
+ * @version 1.0.
+ */
+public class TranspositionTable
+{
+	public static final long DEFAULT_BUDGET = 64L * 1024 * 1024;	//Default memory budget in bytes.
+	
+	private static final int ENTRY_BYTES = 20;		//Bytes of an entry: key, descending diagonal and count.
+	
+	private long[] keys;		//Save the rows occupied and the ascending diagonal of every entry, 0 if it is empty.
+	private int[] descending;	//Save the descending diagonal of every entry.
+	private long[] counts;		//Save the number of solutions of every entry.
+	private int bucketMask;		//Save the mask that gives the bucket of a hash.
+	private long lookups;		//Save the number of lookups.
+	private long hits;			//Save the number of lookups that found the state.
+	private long stores;		//Save the number of states stored.
+	private long evictions;		//Save the number of states replaced by others.
+	
+	/**
+	 * Constructor for TranspositionTable in which the memory budget is passed as a parameter. The number
+	 * of entries is the largest power of two that fits in it.
+	 * 
+	 * @param budget	The memory budget in bytes.
+	 */
+	public TranspositionTable(long budget)
+	{
+		long entries = Math.max(budget / ENTRY_BYTES, 2);
+		int buckets = Integer.highestOneBit((int) Math.min(entries / 2, 1 << 29));
+		keys = new long[2 * buckets];
+		descending = new int[2 * buckets];
+		counts = new long[2 * buckets];
+		bucketMask = buckets - 1;
+		lookups = 0;
+		hits = 0;
+		stores = 0;
+		evictions = 0;
+	}
+	
+	/**
+	 * Returns the number of entries of the table.
+	 * 
+	 * @return	The number of entries.
+	 */
+	public int getCapacity()
+	{
+		return keys.length;
+	}
+	
+	/**
+	 * Returns the number of lookups.
+	 * 
+	 * @return	The number of lookups.
+	 */
+	public long getLookups()
+	{
+		return lookups;
+	}
+	
+	/**
+	 * Returns the number of lookups that found the state.
+	 * 
+	 * @return	The number of hits.
+	 */
+	public long getHits()
+	{
+		return hits;
+	}
+	
+	/**
+	 * Returns the number of states stored.
+	 * 
+	 * @return	The number of states stored.
+	 */
+	public long getStores()
+	{
+		return stores;
+	}
+	
+	/**
+	 * Returns the number of states replaced by others.
+	 * 
+	 * @return	The number of evictions.
+	 */
+	public long getEvictions()
+	{
+		return evictions;
+	}
+	
+	/**
+	 * Returns the share of the lookups that found the state.
+	 * 
+	 * @return	A value between 0 and 1.
+	 */
+	public double getHitRate()
+	{
+		return (lookups == 0) ? 0 : (double) hits / lookups;
+	}
+	
+	/**
+	 * Empty the table and reset the counters.
+	 */
+	public void clear()
+	{
+		Arrays.fill(keys, 0);
+		lookups = 0;
+		hits = 0;
+		stores = 0;
+		evictions = 0;
+	}
+	
+	/**
+	 * Returns a line that summarizes the use of the table, to be written in the log.
+	 * 
+	 * @return	The summary of the use of the table.
+	 */
+	public String getSummary()
+	{
+		return "Transposition table: " + keys.length + " entries, " + lookups + " lookups, " + hits + " hits (" +
+				String.format(Locale.ROOT, "%.1f", getHitRate() * 100) + " %), " + stores + " stores, " +
+				evictions + " evictions.";
+	}
+	
+	/**
+	 * Returns the number of solutions kept for a state.
+	 * 
+	 * @param rows		The rows occupied, not 0.
+	 * @param ld		The rows attacked in the next column by the ascending diagonals.
+	 * @param rd		The rows attacked in the next column by the descending diagonals.
+	 * @return			The number of solutions, or -1 if the state is not kept.
+	 */
+	public long get(int rows, int ld, int rd)
+	{
+		lookups++;
+		long key = key(rows, ld);
+		int i = bucket(key, rd);
+		if(keys[i] == key && descending[i] == rd){
+			hits++;
+			return counts[i];
+		}
+		if(keys[i + 1] == key && descending[i + 1] == rd){
+			hits++;
+			return counts[i + 1];
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Keep the number of solutions of a state.
+	 * 
+	 * @param rows		The rows occupied, not 0.
+	 * @param ld		The rows attacked in the next column by the ascending diagonals.
+	 * @param rd		The rows attacked in the next column by the descending diagonals.
+	 * @param count		The number of solutions that extend the state.
+	 */
+	public void put(int rows, int ld, int rd, long count)
+	{
+		stores++;
+		long key = key(rows, ld);
+		int i = bucket(key, rd);
+		//The first entry keeps the state with fewer rows occupied, which has more columns left.
+		if(keys[i] == 0 || Integer.bitCount(rows) <= Integer.bitCount((int) (keys[i] >>> 32))){
+			if(keys[i] != 0){
+				if(keys[i + 1] != 0){
+					evictions++;
+				}
+				keys[i + 1] = keys[i];
+				descending[i + 1] = descending[i];
+				counts[i + 1] = counts[i];
+			}
+			keys[i] = key;
+			descending[i] = rd;
+			counts[i] = count;
+		}
+		else{
+			if(keys[i + 1] != 0){
+				evictions++;
+			}
+			keys[i + 1] = key;
+			descending[i + 1] = rd;
+			counts[i + 1] = count;
+		}
+	}
+	
+	/**
+	 * Returns the key of a state without the descending diagonal.
+	 * 
+	 * @param rows		The rows occupied.
+	 * @param ld		The rows attacked in the next column by the ascending diagonals.
+	 * @return			The key.
+	 */
+	private static long key(int rows, int ld)
+	{
+		return ((long) rows << 32) | (ld & 0xFFFFFFFFL);
+	}
+	
+	/**
+	 * Returns the first entry of the bucket of a state.
+	 * 
+	 * @param key		The key of the state.
+	 * @param rd		The rows attacked in the next column by the descending diagonals.
+	 * @return			The position of the first entry of the bucket.
+	 */
+	private int bucket(long key, int rd)
+	{
+		long h = key * 0x9E3779B97F4A7C15L + rd * 0xC2B2AE3D27D4EB4FL;
+		h ^= h >>> 29;
+		
+		return ((int) h & bucketMask) << 1;
+	}
+}